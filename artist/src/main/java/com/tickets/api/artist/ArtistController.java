@@ -1,16 +1,29 @@
 package com.tickets.api.artist;
 
 import com.tickets.api.artist.dto.Artist;
+import com.tickets.api.artist.dto.ArtistBatch;
+import com.tickets.api.artist.dto.ArtistChanges;
+import com.tickets.api.artist.dto.Events;
+import com.tickets.api.artist.snapshot.ArtistNameIndex;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.time.Duration;
+import java.util.List;
 import java.util.Objects;
 
 @Slf4j
@@ -19,23 +32,114 @@ public class ArtistController {
 
     private ArtistService artistService;
 
-    public ArtistController(ArtistService artistService) {
+    private int batchMaxIds;
+
+    private int searchMaxResults;
+
+    private Duration changesHeartbeat;
+
+    public ArtistController(ArtistService artistService, @Value("${artist.batch.max-ids}") int batchMaxIds,
+                            @Value("${artist.search.max-results}") int searchMaxResults, @Value("${artist.changes.heartbeat}") Duration changesHeartbeat) {
         this.artistService = artistService;
+        this.batchMaxIds = batchMaxIds;
+        this.searchMaxResults = Math.min(searchMaxResults, ArtistNameIndex.MAX_RESULTS);
+        this.changesHeartbeat = changesHeartbeat;
     }
 
-    @GetMapping(value = "${paths.artist}/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
-    public Mono<ResponseEntity<Artist>> artistById(@PathVariable Long id) {
+    /**
+     * Serves the artist as bytes encoded once per snapshot, as JSON, CBOR or Smile by
+     * {@code Accept}. With {@code fields}, such as {@code id,name,rank}, only those fields are
+     * served, and an unknown field is answered with 400. A request whose {@code If-None-Match}
+     * carries the current entity tag is answered with 304 Not Modified and no body, and an unknown
+     * id with 404 through {@link ArtistNotFoundException}. Any other failure, such as the feeds
+     * being unavailable before the first snapshot, is answered with 500.
+     */
+    @GetMapping(value = "${paths.artist}/{id}",
+            produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, ResponseFormat.SMILE_VALUE})
+    public Mono<ResponseEntity<byte[]>> artistById(@PathVariable Long id, @RequestParam(required = false) String fields,
+                                                   ServerHttpRequest request) {
         log.info("Inside ArtistController. Fetching artist by id {}", id);
-        return artistService.findById(id)
+        ResponseFormat format = ResponseFormat.negotiate(request.getHeaders().getAccept());
+        ArtistFields projection = fields == null ? null : ArtistFields.parse(fields);
+        if (fields != null && projection == null) {
+            return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST, "fields must be a list of " + ArtistFields.NAMES));
+        }
+        return artistService.findEncodedById(id, format, projection)
                 .filter(Objects::nonNull)
-                .map(artist -> ResponseEntity.ok(artist))
-                .doOnError(error -> {
-                    if (HttpStatus.NOT_FOUND.toString().equalsIgnoreCase(error.getMessage())) {
-                        throw new ResponseStatusException(HttpStatus.NOT_FOUND);
-                    } else if (HttpStatus.INTERNAL_SERVER_ERROR.toString().equalsIgnoreCase(error.getMessage())) {
-                        throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR);
-                    }
-                });
+                .map(artist -> ResponseEntity.ok()
+                        .eTag(artist.getEtag())
+                        .varyBy(HttpHeaders.ACCEPT)
+                        .contentType(format.getMediaType())
+                        .body(artist.getBody()));
+    }
+
+    /**
+     * Streams the artist's events as newline-delimited JSON, written and flushed as the client
+     * reads them. Pages are requested with {@code limit} and continued with {@code after} set to
+     * the id of the last event received.
+     */
+    @GetMapping(value = "${paths.artist}/{id}/events", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<Events> artistEvents(@PathVariable Long id, @RequestParam(required = false) Long after,
+                                     @RequestParam(required = false) Integer limit, @RequestParam(required = false) Boolean hiddenFromSearch) {
+        log.info("Inside ArtistController. Streaming events of artist {}", id);
+        if (limit != null && limit < 1) {
+            return Flux.error(new ResponseStatusException(HttpStatus.BAD_REQUEST, "limit must be positive"));
+        }
+        return artistService.streamEventsByArtistId(id, after, limit, hiddenFromSearch);
+    }
+
+    /**
+     * Same stream as server-sent events, each carrying its event id, so a reconnecting client's
+     * {@code Last-Event-ID} resumes the stream where it broke off.
+     */
+    @GetMapping(value = "${paths.artist}/{id}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<Events>> artistEventStream(@PathVariable Long id, @RequestParam(required = false) Long after,
+                                                           @RequestParam(required = false) Integer limit,
+                                                           @RequestParam(required = false) Boolean hiddenFromSearch,
+                                                           @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        return artistEvents(id, after == null ? lastEventId : after, limit, hiddenFromSearch)
+                .map(event -> ServerSentEvent.builder(event)
+                        .id(String.valueOf(event.getId()))
+                        .build());
+    }
+
+    /**
+     * Server-sent events listing the artists changed by every snapshot published while the client
+     * is connected, with the snapshot version as event id, so that caches in front of this service
+     * can drop just those artists. A comment is sent every {@code artist.changes.heartbeat} to keep
+     * idle connections open through proxies; a heartbeat that a slow client has no demand for is
+     * dropped rather than failing the stream.
+     */
+    @GetMapping(value = "${paths.artist}/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<ArtistChanges>> artistChanges() {
+        log.info("Inside ArtistController. Streaming artist changes");
+        Flux<ServerSentEvent<ArtistChanges>> changes = artistService.changes()
+                .map(artistChanges -> ServerSentEvent.builder(artistChanges)
+                        .id(String.valueOf(artistChanges.getVersion()))
+                        .build());
+        Flux<ServerSentEvent<ArtistChanges>> heartbeats = Flux.interval(changesHeartbeat)
+                .onBackpressureDrop()
+                .map(tick -> ServerSentEvent.<ArtistChanges>builder().comment("heartbeat").build());
+        return Flux.merge(changes, heartbeats);
+    }
+
+    @GetMapping(value = "${paths.artist}/search", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Flux<Artist> searchArtists(@RequestParam String q, @RequestParam(defaultValue = "10") int limit) {
+        log.info("Inside ArtistController. Searching artists by name {}", q);
+        if (limit < 1 || limit > searchMaxResults) {
+            return Flux.error(new ResponseStatusException(HttpStatus.BAD_REQUEST, "limit must be between 1 and " + searchMaxResults));
+        }
+        return artistService.searchByName(q, limit);
+    }
+
+    @GetMapping(value = "${paths.artist}", params = "ids", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<ArtistBatch>> artistsByIds(@RequestParam List<Long> ids) {
+        log.info("Inside ArtistController. Fetching {} artists by id", ids.size());
+        if (ids.size() > batchMaxIds) {
+            return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST, "at most " + batchMaxIds + " ids per request"));
+        }
+        return artistService.findByIds(ids)
+                .map(ResponseEntity::ok);
     }
 
 }
@@ -0,0 +1,71 @@
+package com.tickets.api.artist;
+
+import com.tickets.api.artist.dto.Artist;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Function;
+
+/**
+ * Projection of an artist response onto the fields a caller asked for with {@code fields=}, such
+ * as {@code id,name,rank}. Fields are written in the order of the full response whatever order
+ * they are asked in, and events are only joined when {@code events} is among them.
+ */
+public final class ArtistFields {
+
+    static final String EVENTS = "events";
+
+    private static final Map<String, Function<Artist, Object>> FIELDS = fields();
+
+    static final String NAMES = String.join(",", FIELDS.keySet());
+
+    private final List<String> names;
+
+    private ArtistFields(List<String> names) {
+        this.names = names;
+    }
+
+    /**
+     * Parses a comma-separated field list, or returns null when it names no field or an unknown one.
+     */
+    public static ArtistFields parse(String fields) {
+        Set<String> requested = new TreeSet<>();
+        for (String field : fields.split(",")) {
+            String name = field.trim();
+            if (!name.isEmpty()) {
+                requested.add(name);
+            }
+        }
+        if (requested.isEmpty() || !FIELDS.keySet().containsAll(requested)) {
+            return null;
+        }
+        return new ArtistFields(FIELDS.keySet().stream().filter(requested::contains).toList());
+    }
+
+    boolean includesEvents() {
+        return names.contains(EVENTS);
+    }
+
+    Map<String, Object> project(Artist artist) {
+        Map<String, Object> projected = new LinkedHashMap<>();
+        for (String name : names) {
+            projected.put(name, FIELDS.get(name).apply(artist));
+        }
+        return projected;
+    }
+
+    private static Map<String, Function<Artist, Object>> fields() {
+        Map<String, Function<Artist, Object>> fields = new LinkedHashMap<>();
+        fields.put("id", Artist::getId);
+        fields.put("name", Artist::getName);
+        fields.put("imgSrc", Artist::getImgSrc);
+        fields.put("url", Artist::getUrl);
+        fields.put("rank", Artist::getRank);
+        fields.put(EVENTS, Artist::getEvents);
+        return fields;
+    }
+
+}
@@ -0,0 +1,28 @@
+package com.tickets.api.artist;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Signals a lookup for an id the current snapshot has no artist for, and is answered with 404.
+ * Unknown ids are routine traffic rather than faults, so no stack trace is captured.
+ */
+public class ArtistNotFoundException extends ResponseStatusException {
+
+    private final long id;
+
+    public ArtistNotFoundException(long id) {
+        super(HttpStatus.NOT_FOUND);
+        this.id = id;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+
+}
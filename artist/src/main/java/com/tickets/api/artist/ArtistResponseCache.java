@@ -0,0 +1,152 @@
+package com.tickets.api.artist;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.tickets.api.artist.dto.Artist;
+import com.tickets.api.artist.snapshot.FeedSnapshot;
+import com.tickets.api.artist.snapshot.SnapshotChanges;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Artist responses encoded once and served as bytes, bounded by their total encoded size. An entry
+ * encoded from one snapshot keeps being served from later ones for as long as their
+ * {@link SnapshotChanges} leave the artist out, so a refresh only re-encodes the artists it
+ * changed. The first lookup against a newer snapshot evicts the entries of the changed artists.
+ * <p>
+ * Each artist is encoded separately per {@link ResponseFormat}, on the first request for that
+ * format, and its formats are evicted together. The entity tag is derived from the encoded bytes,
+ * so an unchanged artist keeps its tag across refreshes, restarts and instances, and each format
+ * has a tag of its own.
+ */
+@Slf4j
+@Component
+public class ArtistResponseCache {
+
+    private static final int ETAG_DIGEST_BYTES = 8;
+
+    private final Map<ResponseFormat, ObjectWriter> writers = new EnumMap<>(ResponseFormat.class);
+
+    private final Cache<Long, Entry> entries;
+
+    private final AtomicLong snapshotVersion = new AtomicLong();
+
+    public ArtistResponseCache(ObjectMapper objectMapper, @Value("${artist.response-cache.max-size}") DataSize maxSize,
+                               MeterRegistry meterRegistry) {
+        for (ResponseFormat format : ResponseFormat.values()) {
+            writers.put(format, format == ResponseFormat.JSON ? objectMapper.writer() : objectMapper.copyWith(format.newFactory()).writer());
+        }
+        this.entries = Caffeine.newBuilder()
+                .maximumWeight(maxSize.toBytes())
+                .weigher((Long id, Entry entry) -> entry.weight())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, entries, "artist.responses");
+    }
+
+    /**
+     * Returns the encoded response for the artist in the given snapshot, assembling and encoding it
+     * only when the cached one was encoded before the artist last changed or not in this format.
+     */
+    public EncodedArtist get(FeedSnapshot snapshot, long id, ResponseFormat format, Supplier<Artist> artist) {
+        long version = snapshot.getVersion();
+        evictChanged(snapshot);
+        Entry entry = entries.getIfPresent(id);
+        boolean current = entry != null && (entry.snapshotVersion == version || snapshot.getChanges().unchangedSince(entry.snapshotVersion, id));
+        if (current && entry.responses[format.ordinal()] != null) {
+            return entry.responses[format.ordinal()];
+        }
+        EncodedArtist response = encode(id, artist.get(), format);
+        if (version == snapshotVersion.get()) {
+            EncodedArtist[] responses = current ? entry.responses.clone() : new EncodedArtist[ResponseFormat.values().length];
+            responses[format.ordinal()] = response;
+            entries.put(id, new Entry(version, responses));
+        }
+        return response;
+    }
+
+    /**
+     * Encodes a response that is not cached, such as a projection of the artist.
+     */
+    public EncodedArtist encode(long id, Object response, ResponseFormat format) {
+        try {
+            byte[] body = writers.get(format).writeValueAsBytes(response);
+            return new EncodedArtist(body, etag(body, id));
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public long size() {
+        entries.cleanUp();
+        return entries.estimatedSize();
+    }
+
+    /**
+     * Entries are checked against the snapshot's changes before being served, so eviction only
+     * frees the space held by responses that can no longer be served.
+     */
+    private void evictChanged(FeedSnapshot snapshot) {
+        long version = snapshot.getVersion();
+        long seen = snapshotVersion.get();
+        if (version <= seen || !snapshotVersion.compareAndSet(seen, version)) {
+            return;
+        }
+        long[] changed = snapshot.getChanges().artistIdsSince(seen);
+        if (changed == null) {
+            log.debug("snapshot version {} published, dropping {} responses encoded earlier", version, entries.estimatedSize());
+            entries.invalidateAll();
+        } else {
+            log.debug("snapshot version {} published, dropping responses of {} changed artists", version, changed.length);
+            entries.invalidateAll(Arrays.stream(changed).boxed().toList());
+        }
+    }
+
+    private static String etag(byte[] body, long id) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(body);
+            return "\"" + id + "-" + HexFormat.of().formatHex(digest, 0, ETAG_DIGEST_BYTES) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static final class Entry {
+
+        private final long snapshotVersion;
+
+        private final EncodedArtist[] responses;
+
+        Entry(long snapshotVersion, EncodedArtist[] responses) {
+            this.snapshotVersion = snapshotVersion;
+            this.responses = responses;
+        }
+
+        int weight() {
+            int weight = 0;
+            for (EncodedArtist response : responses) {
+                weight += response == null ? 0 : response.getBody().length;
+            }
+            return weight;
+        }
+
+    }
+
+}
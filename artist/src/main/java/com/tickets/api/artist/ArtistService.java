@@ -1,76 +1,236 @@
 package com.tickets.api.artist;
 
 import com.tickets.api.artist.dto.Artist;
+import com.tickets.api.artist.dto.ArtistBatch;
+import com.tickets.api.artist.dto.ArtistChanges;
 import com.tickets.api.artist.dto.Events;
+import com.tickets.api.artist.snapshot.SnapshotService;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
-import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
-import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.server.ResponseStatusException;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
-import java.util.Arrays;
-import java.util.Objects;
-
-import static java.util.Objects.isNull;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 
 @Slf4j
 @Service
 public class ArtistService {
 
-    private final WebClient webClient;
+    private static final int CHANGES_BUFFER = 64;
+
+    private final SnapshotService snapshotService;
+
+    private final ArtistResponseCache responseCache;
+
+    private final DistributionSummary byIdRecords;
+
+    private final DistributionSummary encodedByIdRecords;
 
-    private String artistURI;
+    private final DistributionSummary eventsRecords;
 
-    private String eventsURI;
+    private final DistributionSummary batchRecords;
 
-    public ArtistService(@Value("${url.base}") String baseURL, @Value("${url.artist}") String artistURI, @Value("${url.events}") String eventsURI) {
-        this.webClient = WebClient.builder().baseUrl(baseURL).build();
-        this.artistURI = artistURI;
-        this.eventsURI = eventsURI;
+    public ArtistService(SnapshotService snapshotService, ArtistResponseCache responseCache, MeterRegistry meterRegistry) {
+        this.snapshotService = snapshotService;
+        this.responseCache = responseCache;
+        this.byIdRecords = recordsScanned(meterRegistry, "by_id");
+        this.encodedByIdRecords = recordsScanned(meterRegistry, "encoded_by_id");
+        this.eventsRecords = recordsScanned(meterRegistry, "events");
+        this.batchRecords = recordsScanned(meterRegistry, "batch");
     }
 
     public Mono<Artist> findById(Long id) {
         log.info("fetching artist by id {}", id);
-        return webClient.get()
-                .uri(artistURI)
-                .accept(MediaType.APPLICATION_JSON)
-                .retrieve()
-                .onStatus(HttpStatus.INTERNAL_SERVER_ERROR::equals, error -> Mono.error(new RuntimeException(HttpStatus.INTERNAL_SERVER_ERROR.toString())))
-                .bodyToFlux(Artist.class)
-                .filter(artist -> Objects.equals(id, artist.getId()))
-                .single(new Artist())
-                .flatMap(artist ->
-                        findEventsByArtistId(artist.getId())
-                                .collectList()
-                                .map(events -> {
-                                    artist.setEvents(events);
-                                    return artist;
-                                }))
-                .handle((artist, sink) -> {
-                    if (isNull(artist.getId())) {
-                        sink.error(new RuntimeException(HttpStatus.NOT_FOUND.toString()));
+        return snapshotService.snapshot()
+                .handle((snapshot, sink) -> {
+                    Artist artist = snapshot.getArtists().get(id);
+                    if (artist == null) {
+                        byIdRecords.record(0);
+                        sink.error(new ArtistNotFoundException(id));
                     } else {
-                        sink.next(artist);
+                        List<Events> events = snapshot.getEvents().eventsFor(id);
+                        byIdRecords.record(1 + events.size());
+                        sink.next(withEvents(artist, events));
+                    }
+                });
+    }
+
+    /**
+     * Same lookup as {@link #findById(Long)}, answered with the response already encoded for the
+     * current snapshot.
+     */
+    public Mono<EncodedArtist> findEncodedById(Long id) {
+        return findEncodedById(id, ResponseFormat.JSON, null);
+    }
+
+    /**
+     * Same lookup, encoded in the given format. With {@code fields}, only those fields are
+     * encoded, per request and without joining events unless they are asked for; otherwise the
+     * whole response is served from the response cache.
+     */
+    public Mono<EncodedArtist> findEncodedById(Long id, ResponseFormat format, ArtistFields fields) {
+        log.info("fetching encoded artist by id {} as {}", id, format);
+        return snapshotService.snapshot()
+                .handle((snapshot, sink) -> {
+                    Artist artist = snapshot.getArtists().get(id);
+                    if (artist == null) {
+                        encodedByIdRecords.record(0);
+                        sink.error(new ArtistNotFoundException(id));
+                    } else if (fields != null) {
+                        List<Events> events = fields.includesEvents() ? snapshot.getEvents().eventsFor(id) : null;
+                        sink.next(responseCache.encode(id, fields.project(withEvents(artist, events)), format));
+                        encodedByIdRecords.record(1 + (events == null ? 0 : events.size()));
+                    } else {
+                        int[] scanned = {1};
+                        sink.next(responseCache.get(snapshot, id, format, () -> {
+                            List<Events> events = snapshot.getEvents().eventsFor(id);
+                            scanned[0] += events.size();
+                            return withEvents(artist, events);
+                        }));
+                        encodedByIdRecords.record(scanned[0]);
                     }
                 });
     }
 
     public Flux<Events> findEventsByArtistId(Long artistId) {
         log.info("fetching events by artist id {}", artistId);
-        return webClient.get()
-                .uri(eventsURI)
-                .accept(MediaType.APPLICATION_JSON)
-                .retrieve()
-                .onStatus(HttpStatus.INTERNAL_SERVER_ERROR::equals, error -> Mono.error(new RuntimeException(HttpStatus.INTERNAL_SERVER_ERROR.toString())))
-                .bodyToFlux(Events.class)
-                .filter(events -> Arrays.stream(events.getArtists()).anyMatch(artist -> Objects.equals(artistId, artist.getId())))
-                .map(events -> {
-                    events.setArtists(null);
+        return snapshotService.snapshot()
+                .flatMapIterable(snapshot -> {
+                    List<Events> events = snapshot.getEvents().eventsFor(artistId);
+                    eventsRecords.record(events.size());
                     return events;
                 });
     }
 
+    /**
+     * Streams one page of the artist's events in feed order, one element per event, so that a page
+     * is never collected into a single list. The page starts after the event with id {@code after},
+     * or at the first event when it is {@code null}, and ends after {@code limit} events, or at the
+     * last event when that is {@code null}. With {@code hiddenFromSearch} set, only events with
+     * that flag count towards the page.
+     * <p>
+     * The event ids make stable cursors across snapshots; a cursor naming an event the artist no
+     * longer has is rejected rather than silently restarting the page.
+     */
+    public Flux<Events> streamEventsByArtistId(Long artistId, Long after, Integer limit, Boolean hiddenFromSearch) {
+        log.info("streaming events by artist id {} after {}", artistId, after);
+        return snapshotService.snapshot()
+                .flatMapMany(snapshot -> {
+                    if (snapshot.getArtists().get(artistId) == null) {
+                        return Flux.error(new ArtistNotFoundException(artistId));
+                    }
+                    List<Events> events = snapshot.getEvents().eventsFor(artistId);
+                    int from = after == null ? 0 : positionOf(events, after) + 1;
+                    if (from == 0 && after != null) {
+                        return Flux.error(new ResponseStatusException(HttpStatus.BAD_REQUEST, "artist " + artistId + " has no event " + after));
+                    }
+                    Flux<Events> page = Flux.fromIterable(events.subList(from, events.size()));
+                    if (hiddenFromSearch != null) {
+                        page = page.filter(event -> event.isHiddenFromSearch() == hiddenFromSearch);
+                    }
+                    return limit == null ? page : page.take(limit, true);
+                });
+    }
+
+    /**
+     * Type-ahead search over artist names, best rank first. Artists are listed without their
+     * events.
+     */
+    public Flux<Artist> searchByName(String query, int limit) {
+        log.info("searching artists by name {}", query);
+        return snapshotService.snapshot()
+                .flatMapIterable(snapshot -> snapshot.getArtists().search(query, limit));
+    }
+
+    /**
+     * Artist changes of every snapshot published from now on. Each subscriber buffers up to
+     * {@value #CHANGES_BUFFER} changes it has not consumed yet and fails beyond that, so that a
+     * stalled client is cut off instead of missing changes silently.
+     */
+    public Flux<ArtistChanges> changes() {
+        return snapshotService.changes()
+                .onBackpressureBuffer(CHANGES_BUFFER)
+                .map(changes -> {
+                    ArtistChanges artistChanges = new ArtistChanges();
+                    artistChanges.setVersion(changes.getVersion());
+                    artistChanges.setEverything(changes.isEverything());
+                    artistChanges.setArtistIds(changes.getArtistIds());
+                    return artistChanges;
+                });
+    }
+
+    /**
+     * Resolves every requested id against one snapshot. Ids are answered once each, in request
+     * order; ids without an artist are listed as missing instead of failing the batch.
+     */
+    public Mono<ArtistBatch> findByIds(List<Long> ids) {
+        log.info("fetching {} artists by id", ids.size());
+        return snapshotService.snapshot()
+                .map(snapshot -> {
+                    List<Artist> artists = new ArrayList<>(ids.size());
+                    List<Long> missing = new ArrayList<>();
+                    Set<Long> seen = new HashSet<>();
+                    int scanned = 0;
+                    for (Long id : ids) {
+                        if (id == null || !seen.add(id)) {
+                            continue;
+                        }
+                        Artist artist = snapshot.getArtists().get(id);
+                        if (artist == null) {
+                            missing.add(id);
+                        } else {
+                            List<Events> events = snapshot.getEvents().eventsFor(id);
+                            scanned += 1 + events.size();
+                            artists.add(withEvents(artist, events));
+                        }
+                    }
+                    batchRecords.record(scanned);
+                    ArtistBatch batch = new ArtistBatch();
+                    batch.setArtists(artists);
+                    batch.setMissing(missing);
+                    return batch;
+                });
+    }
+
+    private static int positionOf(List<Events> events, long eventId) {
+        for (int i = 0; i < events.size(); i++) {
+            if (events.get(i).getId() != null && events.get(i).getId() == eventId) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Snapshot records are shared between requests, so responses are assembled on copies.
+     */
+    private static Artist withEvents(Artist source, List<Events> events) {
+        Artist artist = new Artist();
+        artist.setId(source.getId());
+        artist.setName(source.getName());
+        artist.setImgSrc(source.getImgSrc());
+        artist.setUrl(source.getUrl());
+        artist.setRank(source.getRank());
+        artist.setEvents(events);
+        return artist;
+    }
+
+    /**
+     * Snapshot records read to answer one lookup: the artist itself plus the events joined onto
+     * it, or nothing beyond the artist when the encoded response is cached.
+     */
+    private static DistributionSummary recordsScanned(MeterRegistry meterRegistry, String lookup) {
+        return DistributionSummary.builder("artist.lookup.records")
+                .description("Snapshot records read to answer one lookup")
+                .tag("lookup", lookup)
+                .register(meterRegistry);
+    }
+
 }
@@ -0,0 +1,16 @@
+package com.tickets.api.artist;
+
+import lombok.Value;
+
+/**
+ * An artist response already encoded in one {@link ResponseFormat}, with the strong entity tag it
+ * is served under.
+ */
+@Value
+public class EncodedArtist {
+
+    byte[] body;
+
+    String etag;
+
+}
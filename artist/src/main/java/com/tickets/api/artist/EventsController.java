@@ -0,0 +1,51 @@
+package com.tickets.api.artist;
+
+import com.tickets.api.artist.dto.Events;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.time.Instant;
+
+@Slf4j
+@RestController
+public class EventsController {
+
+    private final EventsService eventsService;
+
+    private final Duration defaultWindow;
+
+    public EventsController(EventsService eventsService, @Value("${events.default-window}") Duration defaultWindow) {
+        this.eventsService = eventsService;
+        this.defaultWindow = defaultWindow;
+    }
+
+    /**
+     * Events starting in {@code [from, to)}, given as ISO-8601 instants. {@code from} defaults to
+     * now and {@code to} to the configured window after {@code from}, so a bare request lists the
+     * upcoming events.
+     */
+    @GetMapping(value = "${paths.events}", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<Events> eventsBetween(@RequestParam(required = false) Instant from, @RequestParam(required = false) Instant to,
+                                      @RequestParam(required = false) Long artistId, @RequestParam(required = false) Boolean hiddenFromSearch,
+                                      @RequestParam(required = false) Integer limit) {
+        Instant start = from == null ? Instant.now() : from;
+        Instant end = to == null ? start.plus(defaultWindow) : to;
+        log.info("Inside EventsController. Fetching events between {} and {}", start, end);
+        if (end.isBefore(start)) {
+            return Flux.error(new ResponseStatusException(HttpStatus.BAD_REQUEST, "to must not be before from"));
+        }
+        if (limit != null && limit < 1) {
+            return Flux.error(new ResponseStatusException(HttpStatus.BAD_REQUEST, "limit must be positive"));
+        }
+        return eventsService.findEventsBetween(start, end, artistId, hiddenFromSearch, limit);
+    }
+
+}
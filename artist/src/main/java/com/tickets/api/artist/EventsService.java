@@ -0,0 +1,43 @@
+package com.tickets.api.artist;
+
+import com.tickets.api.artist.dto.Events;
+import com.tickets.api.artist.snapshot.SnapshotService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+
+import java.time.Instant;
+import java.util.List;
+
+@Slf4j
+@Service
+public class EventsService {
+
+    private final SnapshotService snapshotService;
+
+    public EventsService(SnapshotService snapshotService) {
+        this.snapshotService = snapshotService;
+    }
+
+    /**
+     * Events starting at or after {@code from} and before {@code to}, in start order. Without an
+     * artist the range is read from the snapshot's start-ordered index; with one, only that
+     * artist's events are checked, which are far fewer. Either way the starts were worked out when
+     * the snapshot was built.
+     */
+    public Flux<Events> findEventsBetween(Instant from, Instant to, Long artistId, Boolean hiddenFromSearch, Integer limit) {
+        log.info("fetching events between {} and {} for artist {}", from, to, artistId);
+        return snapshotService.snapshot()
+                .flatMapMany(snapshot -> {
+                    List<Events> events = artistId == null
+                            ? snapshot.getEvents().eventsBetween(from, to)
+                            : snapshot.getEvents().eventsBetween(artistId, from, to);
+                    Flux<Events> page = Flux.fromIterable(events);
+                    if (hiddenFromSearch != null) {
+                        page = page.filter(event -> event.isHiddenFromSearch() == hiddenFromSearch);
+                    }
+                    return limit == null ? page : page.take(limit, true);
+                });
+    }
+
+}
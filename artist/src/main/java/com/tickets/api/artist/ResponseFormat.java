@@ -0,0 +1,63 @@
+package com.tickets.api.artist;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.http.MediaType;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Encodings an artist response can be served in. CBOR and Smile carry the same data model as
+ * JSON in a binary form that is smaller and cheaper to encode and parse, for service-to-service
+ * callers that ask for it in {@code Accept}.
+ */
+public enum ResponseFormat {
+
+    JSON(MediaType.APPLICATION_JSON, JsonFactory::new),
+
+    CBOR(MediaType.APPLICATION_CBOR, CBORFactory::new),
+
+    SMILE(MediaType.parseMediaType(ResponseFormat.SMILE_VALUE), SmileFactory::new);
+
+    public static final String SMILE_VALUE = "application/x-jackson-smile";
+
+    private final MediaType mediaType;
+
+    private final Supplier<JsonFactory> factory;
+
+    ResponseFormat(MediaType mediaType, Supplier<JsonFactory> factory) {
+        this.mediaType = mediaType;
+        this.factory = factory;
+    }
+
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+
+    JsonFactory newFactory() {
+        return factory.get();
+    }
+
+    /**
+     * The format of the most preferred acceptable type, JSON when nothing in particular is asked
+     * for. Types of equal quality keep their order, and a wildcard takes JSON.
+     */
+    public static ResponseFormat negotiate(List<MediaType> accept) {
+        List<MediaType> preferred = accept.stream()
+                .filter(type -> type.getQualityValue() > 0)
+                .sorted(Comparator.comparingDouble(MediaType::getQualityValue).reversed())
+                .toList();
+        for (MediaType type : preferred) {
+            for (ResponseFormat format : values()) {
+                if (type.isCompatibleWith(format.mediaType)) {
+                    return format;
+                }
+            }
+        }
+        return JSON;
+    }
+
+}
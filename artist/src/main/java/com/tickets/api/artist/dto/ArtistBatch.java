@@ -0,0 +1,14 @@
+package com.tickets.api.artist.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class ArtistBatch {
+
+    private List<Artist> artists;
+
+    private List<Long> missing;
+
+}
@@ -0,0 +1,20 @@
+package com.tickets.api.artist.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Artists whose response changed when a snapshot was published. With {@code everything} set, every
+ * artist must be taken as changed and {@code artistIds} is empty.
+ */
+@Data
+public class ArtistChanges {
+
+    private long version;
+
+    private boolean everything;
+
+    private List<Long> artistIds;
+
+}
@@ -19,7 +19,7 @@ public class Events {
 
     private Artist[] artists;
 
-    //private Venue venue;
+    private Venue venue;
 
     private boolean hiddenFromSearch;
 
@@ -0,0 +1,175 @@
+package com.tickets.api.artist.limit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Concurrency limit that adapts to the latency of the calls it admits, additive increase and
+ * multiplicative decrease: a call that fails or takes longer than the latency threshold cuts the
+ * limit by the backoff ratio, and a fast call raises it by one while at least half of the limit is
+ * in use. Calls beyond the limit are rejected at once rather than queued, so that an overloaded
+ * dependency is not handed more work to fall further behind on.
+ * <p>
+ * Reported as the {@code limiter.limit} and {@code limiter.in.flight} gauges and the
+ * {@code limiter.rejected} counter, tagged with the limiter name.
+ */
+public final class AdaptiveLimiter {
+
+    private final LimitSettings settings;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private final Counter rejected;
+
+    private final Duration retryAfter;
+
+    private volatile double limit;
+
+    public AdaptiveLimiter(String name, LimitSettings settings, MeterRegistry meterRegistry) {
+        this.settings = settings;
+        this.limit = Math.max(settings.getMinLimit(), Math.min(settings.getMaxLimit(), settings.getInitialLimit()));
+        this.retryAfter = settings.getRetryAfter();
+        Gauge.builder("limiter.limit", this, AdaptiveLimiter::limit)
+                .description("Current concurrency limit")
+                .tag("limiter", name)
+                .register(meterRegistry);
+        Gauge.builder("limiter.in.flight", this, AdaptiveLimiter::inFlight)
+                .description("Calls admitted and not completed yet")
+                .tag("limiter", name)
+                .register(meterRegistry);
+        this.rejected = Counter.builder("limiter.rejected")
+                .description("Calls rejected for being over the concurrency limit")
+                .tag("limiter", name)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Admits a call if the limit allows it, returning the permit to release once it completes, or
+     * null when the call must be rejected.
+     */
+    public Permit tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit()) {
+                rejected.increment();
+                return null;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return new Permit(System.nanoTime());
+            }
+        }
+    }
+
+    /**
+     * Runs the call under a permit, failing with {@link LimitExceededException} without
+     * subscribing to it when the limit is reached. Errors count as dropped calls.
+     */
+    public <T> Mono<T> limit(Mono<T> call) {
+        return Mono.defer(() -> {
+            Permit permit = tryAcquire();
+            if (permit == null) {
+                return Mono.error(new LimitExceededException(retryAfter));
+            }
+            return call.doFinally(signal -> {
+                if (signal == SignalType.ON_COMPLETE) {
+                    permit.completed();
+                } else if (signal == SignalType.CANCEL) {
+                    permit.cancelled();
+                } else {
+                    permit.dropped();
+                }
+            });
+        });
+    }
+
+    public int limit() {
+        return (int) limit;
+    }
+
+    public int inFlight() {
+        return inFlight.get();
+    }
+
+    public long rejected() {
+        return (long) rejected.count();
+    }
+
+    private synchronized void adjust(long latencyNanos, int inFlightBefore, boolean dropped) {
+        if (dropped || latencyNanos > settings.getLatencyThreshold().toNanos()) {
+            limit = Math.max(settings.getMinLimit(), limit * settings.getBackoffRatio());
+        } else if (inFlightBefore * 2 >= limit) {
+            limit = Math.min(settings.getMaxLimit(), limit + 1);
+        }
+    }
+
+    /**
+     * An admitted call. The first release takes effect; later ones are ignored.
+     */
+    public final class Permit {
+
+        private final long started;
+
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private final AtomicLong latency = new AtomicLong(-1);
+
+        private Permit(long started) {
+            this.started = started;
+        }
+
+        /**
+         * The call has produced its response, so its latency is taken now rather than on release.
+         * A streamed response is held in flight until it ends, but a client reading it slowly does
+         * not make the call look slow.
+         */
+        public void responded() {
+            latency.compareAndSet(-1, System.nanoTime() - started);
+        }
+
+        /**
+         * The call completed; its latency decides whether the limit grows or shrinks.
+         */
+        public void completed() {
+            release(false, true);
+        }
+
+        /**
+         * The call failed or timed out, a sign of overload whatever its latency.
+         */
+        public void dropped() {
+            release(true, true);
+        }
+
+        /**
+         * The call was cancelled, by a client going away or by losing a race. Only a call cancelled
+         * after the latency threshold says anything about load, and shrinks the limit.
+         */
+        public void cancelled() {
+            release(false, false);
+        }
+
+        private void release(boolean dropped, boolean completed) {
+            if (!released.compareAndSet(false, true)) {
+                return;
+            }
+            int before = inFlight.getAndDecrement();
+            responded();
+            long latency = this.latency.get();
+            if (completed || dropped) {
+                adjust(latency, before, dropped);
+            } else if (latency > settings.getLatencyThreshold().toNanos()) {
+                adjust(latency, before, true);
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,27 @@
+package com.tickets.api.artist.limit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Registers the load shedding filter. Kept in a configuration of its own so that web slice tests
+ * exercise the controllers without it. With {@code limit.server.enabled} off, the filter passes
+ * every request through; it is checked here rather than in a bean condition, which ahead-of-time
+ * processing would fix at build time.
+ */
+@Configuration
+@EnableConfigurationProperties(LimitProperties.class)
+public class LimitConfiguration {
+
+    @Bean
+    public LoadSheddingFilter loadSheddingFilter(LimitProperties properties, MeterRegistry meterRegistry,
+                                                 @Value("${paths.artist}/changes") String changesPath) {
+        LimitSettings server = properties.getServer();
+        AdaptiveLimiter limiter = server.isEnabled() ? new AdaptiveLimiter("server", server, meterRegistry) : null;
+        return new LoadSheddingFilter(limiter, server.getRetryAfter(), changesPath);
+    }
+
+}
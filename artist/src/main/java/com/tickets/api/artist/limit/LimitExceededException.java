@@ -0,0 +1,38 @@
+package com.tickets.api.artist.limit;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+
+/**
+ * Signals a call rejected by an {@link AdaptiveLimiter}, and is answered with 503 and a
+ * {@code Retry-After} header. Rejections are expected under overload, so no stack trace is captured.
+ */
+public class LimitExceededException extends ResponseStatusException {
+
+    private final Duration retryAfter;
+
+    public LimitExceededException(Duration retryAfter) {
+        super(HttpStatus.SERVICE_UNAVAILABLE, "concurrency limit reached");
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+
+    @Override
+    public HttpHeaders getHeaders() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, LoadSheddingFilter.retryAfterSeconds(retryAfter));
+        return headers;
+    }
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+
+}
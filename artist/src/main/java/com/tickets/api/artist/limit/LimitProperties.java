@@ -0,0 +1,16 @@
+package com.tickets.api.artist.limit;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Load shedding of incoming requests, bound from {@code limit.*}. The limit on upstream calls is
+ * part of the upstream settings.
+ */
+@Data
+@ConfigurationProperties("limit")
+public class LimitProperties {
+
+    private LimitSettings server = new LimitSettings();
+
+}
@@ -0,0 +1,36 @@
+package com.tickets.api.artist.limit;
+
+import lombok.Data;
+
+import java.time.Duration;
+
+/**
+ * Bounds and tuning of one {@link AdaptiveLimiter}.
+ */
+@Data
+public class LimitSettings {
+
+    private boolean enabled = true;
+
+    private int initialLimit = 20;
+
+    private int minLimit = 1;
+
+    private int maxLimit = 200;
+
+    /**
+     * Calls slower than this count as a sign of overload, the same as failed calls.
+     */
+    private Duration latencyThreshold = Duration.ofSeconds(1);
+
+    /**
+     * Factor the limit is multiplied by on every slow or failed call.
+     */
+    private double backoffRatio = 0.9;
+
+    /**
+     * Sent as {@code Retry-After} with rejected calls.
+     */
+    private Duration retryAfter = Duration.ofSeconds(1);
+
+}
@@ -0,0 +1,99 @@
+package com.tickets.api.artist.limit;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.time.Duration;
+
+/**
+ * Sheds API requests beyond the adaptive concurrency limit with 503 and {@code Retry-After},
+ * before any handler runs. Requests answered with a client error count as completed, and server
+ * errors as dropped.
+ * <p>
+ * A request holds its permit until its response ends, but its latency is taken when the response
+ * is committed, so NDJSON and event-stream pages read slowly by their clients do not shrink the
+ * limit.
+ * <p>
+ * Actuator endpoints are never shed, so the service stays observable under overload. Nor is the
+ * changes stream: it stays open for as long as the client listens, which says nothing about load.
+ * Exemptions go by route alone, so that no request header can take a request past the limit, and
+ * finite NDJSON or event-stream pages are limited like any other response.
+ */
+public class LoadSheddingFilter implements WebFilter {
+
+    private static final String ACTUATOR_PATH = "/actuator";
+
+    private final AdaptiveLimiter limiter;
+
+    private final String retryAfter;
+
+    private final String changesPath;
+
+    /**
+     * With a null limiter, every request is passed through. The changes path is relative to the
+     * application's base path, like the paths requests are matched against.
+     */
+    public LoadSheddingFilter(AdaptiveLimiter limiter, Duration retryAfter, String changesPath) {
+        this.limiter = limiter;
+        this.retryAfter = retryAfterSeconds(retryAfter);
+        this.changesPath = changesPath;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        if (limiter == null || exempt(exchange)) {
+            return chain.filter(exchange);
+        }
+        AdaptiveLimiter.Permit permit = limiter.tryAcquire();
+        if (permit == null) {
+            ServerHttpResponse response = exchange.getResponse();
+            response.setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+            response.getHeaders().set(HttpHeaders.RETRY_AFTER, retryAfter);
+            return response.setComplete();
+        }
+        exchange.getResponse().beforeCommit(() -> {
+            permit.responded();
+            return Mono.empty();
+        });
+        return chain.filter(exchange)
+                .doOnError(error -> {
+                    if (isServerError(error)) {
+                        permit.dropped();
+                    } else {
+                        permit.completed();
+                    }
+                })
+                .doFinally(signal -> {
+                    HttpStatusCode status = exchange.getResponse().getStatusCode();
+                    if (signal == SignalType.CANCEL) {
+                        permit.cancelled();
+                    } else if (status != null && status.is5xxServerError()) {
+                        permit.dropped();
+                    } else {
+                        permit.completed();
+                    }
+                });
+    }
+
+    static String retryAfterSeconds(Duration retryAfter) {
+        return String.valueOf(Math.max(1, (retryAfter.toMillis() + 999) / 1000));
+    }
+
+    private boolean exempt(ServerWebExchange exchange) {
+        String path = exchange.getRequest().getPath().pathWithinApplication().value();
+        return path.startsWith(ACTUATOR_PATH) || path.equals(changesPath);
+    }
+
+    private static boolean isServerError(Throwable error) {
+        return !(error instanceof ResponseStatusException status) || status.getStatusCode().is5xxServerError();
+    }
+
+}
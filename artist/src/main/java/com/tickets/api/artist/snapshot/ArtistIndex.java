@@ -0,0 +1,62 @@
+package com.tickets.api.artist.snapshot;
+
+import com.tickets.api.artist.dto.Artist;
+
+import java.util.List;
+
+/**
+ * Artists from one load of the artist feed, keyed by id. Lookups pass an {@link IdFilter} first, so
+ * most ids without an artist are turned away without probing the map.
+ */
+public final class ArtistIndex {
+
+    static final ArtistIndex EMPTY = build(List.of());
+
+    private final List<Artist> artists;
+
+    private final LongObjectHashMap<Artist> byId;
+
+    private final IdFilter known;
+
+    private final ArtistNameIndex names;
+
+    private ArtistIndex(List<Artist> artists, LongObjectHashMap<Artist> byId, IdFilter known, ArtistNameIndex names) {
+        this.artists = artists;
+        this.byId = byId;
+        this.known = known;
+        this.names = names;
+    }
+
+    public static ArtistIndex build(List<Artist> artists) {
+        List<Artist> ordered = List.copyOf(artists);
+        LongObjectHashMap<Artist> byId = new LongObjectHashMap<>(ordered.size());
+        IdFilter known = new IdFilter(ordered.size());
+        for (Artist artist : ordered) {
+            if (artist.getId() != null) {
+                byId.put(artist.getId(), artist);
+                known.add(artist.getId());
+            }
+        }
+        return new ArtistIndex(ordered, byId, known, ArtistNameIndex.build(ordered));
+    }
+
+    public Artist get(long id) {
+        return known.mightContain(id) ? byId.get(id) : null;
+    }
+
+    /**
+     * Artists whose name matches the type-ahead query, best rank first.
+     */
+    public List<Artist> search(String query, int limit) {
+        return names.search(query, limit);
+    }
+
+    public List<Artist> all() {
+        return artists;
+    }
+
+    public int size() {
+        return byId.size();
+    }
+
+}
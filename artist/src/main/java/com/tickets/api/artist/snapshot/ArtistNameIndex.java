@@ -0,0 +1,384 @@
+package com.tickets.api.artist.snapshot;
+
+import com.tickets.api.artist.dto.Artist;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Type-ahead index over artist names. A query matches an artist when it is a prefix of the name
+ * from the start of any of its words, so "prog fe" finds "HRH Prog Festival". Names and queries
+ * are compared lower-cased, without accents, and with runs of anything but letters and digits
+ * read as a single space.
+ * <p>
+ * Matches are ranked by {@link Artist#getRank()}, lowest first. A query prefixes a contiguous
+ * range of the sorted name suffixes, which may hold most of the index for something like "a" or
+ * "the b". Rather than walk that range, the best ranked artists are taken from it one at a time
+ * through a tree of the best ranked suffix under each node, so a search costs O(limit log n)
+ * however many names it matches.
+ * <p>
+ * A search allocates nothing but its result list: the query is normalized into a per-thread
+ * buffer, and the candidate ranges are kept in a per-thread primitive heap. Only a query with
+ * characters beyond the Latin blocks goes through {@link Normalizer}, which allocates.
+ */
+public final class ArtistNameIndex {
+
+    public static final int MAX_RESULTS = 50;
+
+    /**
+     * Characters below this are folded through {@link #FOLDED} without {@link Normalizer}.
+     */
+    private static final int FOLDED_RANGE = 0x250;
+
+    private static final char SEPARATOR = 0;
+
+    private static final char UNFOLDED = '\uffff';
+
+    /**
+     * Every character below {@link #FOLDED_RANGE} as {@link #normalize(String)} reads it: the
+     * lower-cased letter or digit it decomposes to, {@link #SEPARATOR}, or {@link #UNFOLDED} when
+     * it needs the full normalizer.
+     */
+    private static final char[] FOLDED = folded();
+
+    private static final ThreadLocal<Scratch> SCRATCH = ThreadLocal.withInitial(Scratch::new);
+
+    private final Artist[] artists;
+
+    private final String[] suffixes;
+
+    private final int[] suffixArtists;
+
+    /**
+     * Bottom-up segment tree over {@link #suffixArtists}: leaf {@code n + i} is suffix {@code i},
+     * and every inner node holds whichever suffix below it has the best ranked artist.
+     */
+    private final int[] bestSuffixes;
+
+    private ArtistNameIndex(Artist[] artists, String[] suffixes, int[] suffixArtists) {
+        this.artists = artists;
+        this.suffixes = suffixes;
+        this.suffixArtists = suffixArtists;
+        this.bestSuffixes = new int[suffixArtists.length * 2];
+        for (int i = 0; i < suffixArtists.length; i++) {
+            bestSuffixes[suffixArtists.length + i] = i;
+        }
+        for (int node = suffixArtists.length - 1; node > 0; node--) {
+            bestSuffixes[node] = better(bestSuffixes[2 * node], bestSuffixes[2 * node + 1]);
+        }
+    }
+
+    public static ArtistNameIndex build(List<Artist> source) {
+        Artist[] artists = source.stream()
+                .filter(artist -> artist.getName() != null)
+                .sorted(Comparator.comparingLong(Artist::getRank))
+                .toArray(Artist[]::new);
+        List<Suffix> entries = new ArrayList<>();
+        for (int position = 0; position < artists.length; position++) {
+            String name = normalize(artists[position].getName());
+            int start = name.isEmpty() ? -1 : 0;
+            while (start >= 0) {
+                entries.add(new Suffix(name.substring(start), position));
+                int space = name.indexOf(' ', start);
+                start = space < 0 ? -1 : space + 1;
+            }
+        }
+        entries.sort(Comparator.comparing(Suffix::text).thenComparingInt(Suffix::artist));
+        String[] suffixes = new String[entries.size()];
+        int[] suffixArtists = new int[entries.size()];
+        for (int i = 0; i < suffixes.length; i++) {
+            suffixes[i] = entries.get(i).text();
+            suffixArtists[i] = entries.get(i).artist();
+        }
+        return new ArtistNameIndex(artists, suffixes, suffixArtists);
+    }
+
+    /**
+     * Up to {@code limit} artists whose name matches the query, best rank first. The artists are
+     * the snapshot's own records and must not be modified.
+     */
+    public List<Artist> search(String query, int limit) {
+        int size = Math.min(limit, MAX_RESULTS);
+        if (size < 1) {
+            return List.of();
+        }
+        Scratch scratch = SCRATCH.get();
+        int length = scratch.normalize(query);
+        if (length == 0) {
+            return List.of();
+        }
+        int from = lowerBound(scratch.query, length);
+        return rankedMatches(scratch, from, upperBound(scratch.query, length, from), size);
+    }
+
+    public int suffixCount() {
+        return suffixes.length;
+    }
+
+    /**
+     * Artists are held in rank order, so ranking compares positions. Each range in the heap is
+     * keyed by its best position; taking it and queueing what lies either side of that suffix yields
+     * positions in rank order, so an artist matched by several of its words comes out repeatedly in
+     * a row and is kept once.
+     */
+    private List<Artist> rankedMatches(Scratch scratch, int from, int to, int size) {
+        if (from == to) {
+            return List.of();
+        }
+        scratch.count = 0;
+        offer(scratch, from, to);
+        List<Artist> matches = new ArrayList<>(size);
+        int last = -1;
+        while (matches.size() < size && scratch.count > 0) {
+            long best = scratch.heap[0];
+            long range = scratch.heap[1];
+            scratch.poll();
+            int artist = (int) (best >>> 32);
+            int suffix = (int) best;
+            if (artist != last) {
+                last = artist;
+                matches.add(artists[artist]);
+            }
+            offer(scratch, (int) (range >>> 32), suffix);
+            offer(scratch, suffix + 1, (int) range);
+        }
+        return matches;
+    }
+
+    private void offer(Scratch scratch, int from, int to) {
+        if (from < to) {
+            int suffix = bestSuffix(from, to);
+            scratch.add((long) suffixArtists[suffix] << 32 | suffix, (long) from << 32 | to);
+        }
+    }
+
+    /**
+     * The suffix with the best ranked artist in {@code [from, to)}.
+     */
+    private int bestSuffix(int from, int to) {
+        int best = -1;
+        for (int low = from + suffixes.length, high = to + suffixes.length; low < high; low >>>= 1, high >>>= 1) {
+            if ((low & 1) == 1) {
+                best = better(best, bestSuffixes[low++]);
+            }
+            if ((high & 1) == 1) {
+                best = better(best, bestSuffixes[--high]);
+            }
+        }
+        return best;
+    }
+
+    private int better(int suffix, int other) {
+        return suffix < 0 || suffixArtists[other] < suffixArtists[suffix] ? other : suffix;
+    }
+
+    private int lowerBound(char[] prefix, int length) {
+        int low = 0;
+        int high = suffixes.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (compare(suffixes[middle], prefix, length) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * The end of the suffixes the prefix starts, which sit together from its {@link #lowerBound}.
+     */
+    private int upperBound(char[] prefix, int length, int from) {
+        int low = from;
+        int high = suffixes.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (startsWith(suffixes[middle], prefix, length)) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Compares as {@link String#compareTo} would with the prefix as a string.
+     */
+    private static int compare(String suffix, char[] prefix, int length) {
+        int common = Math.min(suffix.length(), length);
+        for (int i = 0; i < common; i++) {
+            int difference = suffix.charAt(i) - prefix[i];
+            if (difference != 0) {
+                return difference;
+            }
+        }
+        return suffix.length() - length;
+    }
+
+    private static boolean startsWith(String suffix, char[] prefix, int length) {
+        if (suffix.length() < length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (suffix.charAt(i) != prefix[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static String normalize(String text) {
+        char[] folded = new char[text.length()];
+        int length = fold(text, folded);
+        return length < 0 ? decompose(text) : new String(folded, 0, length);
+    }
+
+    /**
+     * Normalizes text made of characters below {@link #FOLDED_RANGE} into {@code into}, which must
+     * be at least as long as the text, and returns the normalized length; or returns -1 when the
+     * text needs {@link #decompose}.
+     */
+    private static int fold(String text, char[] into) {
+        int length = 0;
+        boolean separated = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            char folded = c < FOLDED_RANGE ? FOLDED[c] : UNFOLDED;
+            if (folded == UNFOLDED) {
+                return -1;
+            }
+            if (folded == SEPARATOR) {
+                separated = true;
+            } else {
+                if (separated && length > 0) {
+                    into[length++] = ' ';
+                }
+                separated = false;
+                into[length++] = folded;
+            }
+        }
+        return length;
+    }
+
+    private static String decompose(String text) {
+        String decomposed = Normalizer.isNormalized(text, Normalizer.Form.NFD) ? text : Normalizer.normalize(text, Normalizer.Form.NFD);
+        StringBuilder normalized = new StringBuilder(decomposed.length());
+        boolean separated = false;
+        for (int i = 0; i < decomposed.length(); ) {
+            int codePoint = decomposed.codePointAt(i);
+            i += Character.charCount(codePoint);
+            if (Character.isLetterOrDigit(codePoint)) {
+                if (separated && normalized.length() > 0) {
+                    normalized.append(' ');
+                }
+                separated = false;
+                normalized.appendCodePoint(Character.toLowerCase(codePoint));
+            } else if (!isMark(codePoint)) {
+                separated = true;
+            }
+        }
+        return normalized.toString();
+    }
+
+    private static char[] folded() {
+        char[] folded = new char[FOLDED_RANGE];
+        for (char c = 0; c < FOLDED_RANGE; c++) {
+            String decomposed = decompose(String.valueOf(c));
+            folded[c] = decomposed.isEmpty() ? SEPARATOR : decomposed.length() == 1 ? decomposed.charAt(0) : UNFOLDED;
+        }
+        return folded;
+    }
+
+    private static boolean isMark(int codePoint) {
+        int type = Character.getType(codePoint);
+        return type == Character.NON_SPACING_MARK || type == Character.ENCLOSING_MARK || type == Character.COMBINING_SPACING_MARK;
+    }
+
+    private record Suffix(String text, int artist) {
+    }
+
+    /**
+     * Per-thread buffers of a search. The heap holds two longs per range: the artist and suffix it
+     * is keyed by, then the range's bounds; it grows only for names that repeat a word many times.
+     */
+    private static final class Scratch {
+
+        private char[] query = new char[64];
+
+        private long[] heap = new long[4 * MAX_RESULTS];
+
+        private int count;
+
+        int normalize(String text) {
+            if (query.length < text.length()) {
+                query = new char[Math.max(text.length(), query.length * 2)];
+            }
+            int length = fold(text, query);
+            if (length >= 0) {
+                return length;
+            }
+            String decomposed = decompose(text);
+            if (query.length < decomposed.length()) {
+                query = new char[decomposed.length()];
+            }
+            decomposed.getChars(0, decomposed.length(), query, 0);
+            return decomposed.length();
+        }
+
+        void add(long key, long range) {
+            if (2 * count + 2 > heap.length) {
+                heap = Arrays.copyOf(heap, heap.length * 2);
+            }
+            int index = count++;
+            heap[2 * index] = key;
+            heap[2 * index + 1] = range;
+            while (index > 0) {
+                int parent = (index - 1) >>> 1;
+                if (heap[2 * parent] <= heap[2 * index]) {
+                    return;
+                }
+                swap(parent, index);
+                index = parent;
+            }
+        }
+
+        void poll() {
+            count--;
+            heap[0] = heap[2 * count];
+            heap[1] = heap[2 * count + 1];
+            int index = 0;
+            while (true) {
+                int smallest = index;
+                int left = 2 * index + 1;
+                int right = left + 1;
+                if (left < count && heap[2 * left] < heap[2 * smallest]) {
+                    smallest = left;
+                }
+                if (right < count && heap[2 * right] < heap[2 * smallest]) {
+                    smallest = right;
+                }
+                if (smallest == index) {
+                    return;
+                }
+                swap(index, smallest);
+                index = smallest;
+            }
+        }
+
+        private void swap(int i, int j) {
+            long key = heap[2 * i];
+            long range = heap[2 * i + 1];
+            heap[2 * i] = heap[2 * j];
+            heap[2 * i + 1] = heap[2 * j + 1];
+            heap[2 * j] = key;
+            heap[2 * j + 1] = range;
+        }
+
+    }
+
+}
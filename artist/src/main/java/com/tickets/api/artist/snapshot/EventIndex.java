@@ -0,0 +1,336 @@
+package com.tickets.api.artist.snapshot;
+
+import com.tickets.api.artist.dto.Artist;
+import com.tickets.api.artist.dto.Events;
+import com.tickets.api.artist.dto.Venue;
+
+import java.time.DateTimeException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * Events from one load of the events feed, kept in feed order and keyed by id, together with an
+ * inverted index from artist id to the positions of that artist's events, and the positions of
+ * all events with a start date ordered by when they start.
+ * <p>
+ * Events are served without their artist list and with their venue joined from the venue feed;
+ * those response copies are made once per load so that lookups neither allocate per event nor
+ * touch the records decoded from the feed. A venue missing from the venue feed is served with its
+ * id only.
+ */
+public final class EventIndex {
+
+    private static final int[] NO_POSTINGS = new int[0];
+
+    private static final long NO_START = Long.MIN_VALUE;
+
+    static final EventIndex EMPTY = build(List.of(), VenueIndex.EMPTY);
+
+    private final List<Events> events;
+
+    private final LongObjectHashMap<Events> byId;
+
+    private final Events[] responses;
+
+    private final LongObjectHashMap<int[]> byArtist;
+
+    private final int postingCount;
+
+    private final long[] starts;
+
+    private final long[] startSeconds;
+
+    private final int[] byStart;
+
+    private final Duration buildTime;
+
+    private EventIndex(List<Events> events, LongObjectHashMap<Events> byId, Events[] responses,
+                       LongObjectHashMap<int[]> byArtist, int postingCount, long[] starts, long[] startSeconds, int[] byStart, Duration buildTime) {
+        this.events = events;
+        this.byId = byId;
+        this.responses = responses;
+        this.byArtist = byArtist;
+        this.postingCount = postingCount;
+        this.starts = starts;
+        this.startSeconds = startSeconds;
+        this.byStart = byStart;
+        this.buildTime = buildTime;
+    }
+
+    public static EventIndex build(List<Events> events, VenueIndex venues) {
+        long started = System.nanoTime();
+        List<Events> ordered = List.copyOf(events);
+        LongObjectHashMap<Events> byId = new LongObjectHashMap<>(ordered.size());
+        Events[] responses = new Events[ordered.size()];
+        LongObjectHashMap<Postings> postings = new LongObjectHashMap<>();
+        for (int position = 0; position < responses.length; position++) {
+            Events event = ordered.get(position);
+            if (event.getId() != null) {
+                byId.put(event.getId(), event);
+            }
+            responses[position] = forResponse(event, venues);
+            if (event.getArtists() == null) {
+                continue;
+            }
+            for (Artist artist : event.getArtists()) {
+                if (artist.getId() == null) {
+                    continue;
+                }
+                Postings artistPostings = postings.get(artist.getId());
+                if (artistPostings == null) {
+                    artistPostings = new Postings();
+                    postings.put(artist.getId(), artistPostings);
+                }
+                artistPostings.add(position);
+            }
+        }
+        LongObjectHashMap<int[]> byArtist = new LongObjectHashMap<>(postings.size());
+        int[] postingCount = new int[1];
+        postings.forEach((artistId, artistPostings) -> {
+            byArtist.put(artistId, artistPostings.toArray());
+            postingCount[0] += artistPostings.size;
+        });
+        long[] starts = new long[responses.length];
+        int[] byStart = startOrder(responses, starts);
+        long[] startSeconds = new long[byStart.length];
+        for (int i = 0; i < byStart.length; i++) {
+            startSeconds[i] = starts[byStart[i]];
+        }
+        return new EventIndex(ordered, byId, responses, byArtist, postingCount[0], starts, startSeconds, byStart,
+                Duration.ofNanos(System.nanoTime() - started));
+    }
+
+    public Events get(long id) {
+        return byId.get(id);
+    }
+
+    public List<Events> all() {
+        return events;
+    }
+
+    /**
+     * Events the artist appears in, in feed order and without their artist list. The returned list
+     * is a read-only view over the index.
+     */
+    public List<Events> eventsFor(long artistId) {
+        int[] positions = byArtist.get(artistId);
+        int[] postings = positions == null ? NO_POSTINGS : positions;
+        return new EventsView(responses, postings, 0, postings.length);
+    }
+
+    /**
+     * Events starting at or after {@code from} and before {@code to}, to the second, ordered by
+     * start and then by feed order. Found by binary search, so the cost is in the size of the
+     * result rather than of the feed. Events without a start date are never returned.
+     */
+    public List<Events> eventsBetween(Instant from, Instant to) {
+        int first = lowerBound(startSeconds, from.getEpochSecond());
+        int last = Math.max(first, lowerBound(startSeconds, to.getEpochSecond()));
+        return new EventsView(responses, byStart, first, last - first);
+    }
+
+    /**
+     * The artist's events starting at or after {@code from} and before {@code to}, ordered as
+     * {@link #eventsBetween(Instant, Instant)}. Only the artist's postings are checked, against the
+     * starts worked out when the index was built.
+     */
+    public List<Events> eventsBetween(long artistId, Instant from, Instant to) {
+        int[] positions = byArtist.get(artistId);
+        if (positions == null) {
+            return new EventsView(responses, NO_POSTINGS, 0, 0);
+        }
+        long first = from.getEpochSecond();
+        long last = to.getEpochSecond();
+        int[] matches = new int[positions.length];
+        int count = 0;
+        for (int position : positions) {
+            long start = starts[position];
+            if (start != NO_START && start >= first && start < last) {
+                matches[count++] = position;
+            }
+        }
+        return new EventsView(responses, sortByStart(matches, count, starts), 0, count);
+    }
+
+    /**
+     * Instant the event starts at: its start date is local to its time zone, or to UTC when the
+     * zone is missing or unknown.
+     */
+    public static Instant startOf(Events event) {
+        return event.getStartDate().atZone(zoneOf(event.getTimeZone())).toInstant();
+    }
+
+    public int size() {
+        return events.size();
+    }
+
+    /**
+     * Number of distinct artists in the inverted index.
+     */
+    public int artistCount() {
+        return byArtist.size();
+    }
+
+    /**
+     * Number of artist-to-event references held by the inverted index.
+     */
+    public int postingCount() {
+        return postingCount;
+    }
+
+    public Duration buildTime() {
+        return buildTime;
+    }
+
+    /**
+     * Positions of the events with a start date, in start order; {@code starts} receives the start
+     * of every event, in epoch seconds, by position, or {@link #NO_START} for an undated event.
+     */
+    private static int[] startOrder(Events[] responses, long[] starts) {
+        int[] dated = new int[responses.length];
+        int count = 0;
+        for (int position = 0; position < responses.length; position++) {
+            if (responses[position].getStartDate() == null) {
+                starts[position] = NO_START;
+            } else {
+                starts[position] = startOf(responses[position]).getEpochSecond();
+                dated[count++] = position;
+            }
+        }
+        return sortByStart(dated, count, starts);
+    }
+
+    /**
+     * Sorts the first {@code count} positions by start with a bottom-up merge sort, which is stable:
+     * positions handed over in feed order stay in feed order among events starting together.
+     */
+    private static int[] sortByStart(int[] positions, int count, long[] starts) {
+        int[] source = positions;
+        int[] target = new int[count];
+        for (int width = 1; width < count; width <<= 1) {
+            for (int low = 0; low < count; low += width << 1) {
+                int middle = Math.min(low + width, count);
+                int high = Math.min(middle + width, count);
+                int left = low;
+                int right = middle;
+                int out = low;
+                while (left < middle && right < high) {
+                    target[out++] = starts[source[right]] < starts[source[left]] ? source[right++] : source[left++];
+                }
+                System.arraycopy(source, left, target, out, middle - left);
+                System.arraycopy(source, right, target, out + middle - left, high - right);
+            }
+            int[] sorted = target;
+            target = source;
+            source = sorted;
+        }
+        return source.length == count ? source : Arrays.copyOf(source, count);
+    }
+
+    private static ZoneId zoneOf(String timeZone) {
+        if (timeZone == null) {
+            return ZoneOffset.UTC;
+        }
+        try {
+            return ZoneId.of(timeZone);
+        } catch (DateTimeException e) {
+            return ZoneOffset.UTC;
+        }
+    }
+
+    /**
+     * First index whose value is not below {@code key}, or the length when there is none.
+     */
+    private static int lowerBound(long[] sorted, long key) {
+        int low = 0;
+        int high = sorted.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (sorted[middle] < key) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private static Events forResponse(Events source, VenueIndex venues) {
+        Events events = new Events();
+        events.setId(source.getId());
+        events.setTitle(source.getTitle());
+        events.setDateStatus(source.getDateStatus());
+        events.setTimeZone(source.getTimeZone());
+        events.setStartDate(source.getStartDate());
+        events.setHiddenFromSearch(source.isHiddenFromSearch());
+        if (source.getVenue() != null && source.getVenue().getId() != null) {
+            Venue venue = venues.get(source.getVenue().getId());
+            events.setVenue(venue == null ? source.getVenue() : venue);
+        }
+        return events;
+    }
+
+    private static final class Postings {
+
+        private int[] positions = new int[4];
+
+        private int size;
+
+        /**
+         * Positions arrive in increasing order, so an artist listed twice on the same event is the
+         * last position added.
+         */
+        void add(int position) {
+            if (size > 0 && positions[size - 1] == position) {
+                return;
+            }
+            if (size == positions.length) {
+                positions = Arrays.copyOf(positions, size << 1);
+            }
+            positions[size++] = position;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(positions, size);
+        }
+
+    }
+
+    private static final class EventsView extends AbstractList<Events> implements RandomAccess {
+
+        private final Events[] responses;
+
+        private final int[] positions;
+
+        private final int offset;
+
+        private final int size;
+
+        EventsView(Events[] responses, int[] positions, int offset, int size) {
+            this.responses = responses;
+            this.positions = positions;
+            this.offset = offset;
+            this.size = size;
+        }
+
+        @Override
+        public Events get(int index) {
+            Objects.checkIndex(index, size);
+            return responses[positions[offset + index]];
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+    }
+
+}
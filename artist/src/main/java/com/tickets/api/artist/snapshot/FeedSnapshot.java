@@ -0,0 +1,45 @@
+package com.tickets.api.artist.snapshot;
+
+import com.tickets.api.artist.upstream.FeedVersion;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Immutable view over every upstream feed as of one load. A new snapshot is built off to the side
+ * and published by swapping a single reference, so readers always see a complete set of indexes.
+ */
+@Getter
+@RequiredArgsConstructor
+public final class FeedSnapshot {
+
+    static final FeedSnapshot EMPTY = new FeedSnapshot(0, Instant.EPOCH,
+            ArtistIndex.EMPTY, FeedVersion.NONE, EventIndex.EMPTY, FeedVersion.NONE, VenueIndex.EMPTY, FeedVersion.NONE, SnapshotChanges.NONE);
+
+    private final long version;
+
+    private final Instant loadedAt;
+
+    private final ArtistIndex artists;
+
+    private final FeedVersion artistsVersion;
+
+    private final EventIndex events;
+
+    private final FeedVersion eventsVersion;
+
+    private final VenueIndex venues;
+
+    private final FeedVersion venuesVersion;
+
+    /**
+     * Artists whose response changed since the snapshot published before this one.
+     */
+    private final SnapshotChanges changes;
+
+    public boolean isLoaded() {
+        return version > 0;
+    }
+
+}
@@ -0,0 +1,57 @@
+package com.tickets.api.artist.snapshot;
+
+/**
+ * Blocked Bloom filter over the ids of one snapshot, answering "definitely absent" for most
+ * unknown ids before the index is probed. Each id sets four bits within a single 64-bit word, so a
+ * check reads one word; at 16 bits per id about one unknown id in 400 gets past the filter.
+ * <p>
+ * Like {@link LongObjectHashMap}, a filter is filled while a snapshot is built and only read once
+ * the snapshot has been published.
+ */
+public final class IdFilter {
+
+    private static final int BITS_PER_ID = 16;
+
+    private final long[] words;
+
+    private final int mask;
+
+    public IdFilter(int expectedSize) {
+        int words = 1;
+        while ((long) words * Long.SIZE < (long) expectedSize * BITS_PER_ID) {
+            words <<= 1;
+        }
+        this.words = new long[words];
+        this.mask = words - 1;
+    }
+
+    public void add(long id) {
+        long hash = mix(id);
+        words[word(hash)] |= bits(hash);
+    }
+
+    public boolean mightContain(long id) {
+        long hash = mix(id);
+        long bits = bits(hash);
+        return (words[word(hash)] & bits) == bits;
+    }
+
+    private int word(long hash) {
+        return (int) (hash >>> 40) & mask;
+    }
+
+    /**
+     * Four bit positions taken from the low 24 bits of the hash; shifts use the low six bits of
+     * their distance, so each six-bit group picks one of the 64 bits of the word.
+     */
+    private static long bits(long hash) {
+        return 1L << hash | 1L << (hash >>> 6) | 1L << (hash >>> 12) | 1L << (hash >>> 18);
+    }
+
+    private static long mix(long id) {
+        long hash = (id ^ (id >>> 33)) * 0xFF51AFD7ED558CCDL;
+        hash = (hash ^ (hash >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return hash ^ (hash >>> 33);
+    }
+
+}
@@ -0,0 +1,173 @@
+package com.tickets.api.artist.snapshot;
+
+import com.tickets.api.artist.dto.Artist;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Artists whose response differs between a snapshot and the one published before it: artists that
+ * were added, removed or edited, and artists whose events or event venues changed. Artists are
+ * compared by content, so a refresh that re-downloads a feed without changing an artist leaves the
+ * artist out.
+ * <p>
+ * The changes of the last {@value #HISTORY} snapshots are kept linked, so that anything derived
+ * from an artist in an earlier snapshot can be checked for still being current. The first
+ * snapshot of a run, and any snapshot restored from disk, changes everything.
+ */
+public final class SnapshotChanges {
+
+    static final int HISTORY = 16;
+
+    static final SnapshotChanges NONE = everything(0);
+
+    private static final long[] NO_IDS = new long[0];
+
+    private final long version;
+
+    private final long[] artistIds;
+
+    private final SnapshotChanges previous;
+
+    private SnapshotChanges(long version, long[] artistIds, SnapshotChanges previous) {
+        this.version = version;
+        this.artistIds = artistIds;
+        this.previous = previous;
+    }
+
+    static SnapshotChanges everything(long version) {
+        return new SnapshotChanges(version, null, null);
+    }
+
+    /**
+     * Changes from {@code before} to the indexes about to be published under {@code version}.
+     * Unchanged indexes are shared between snapshots, so when both are the same instances only the
+     * caller's word that something changed is needed.
+     */
+    static SnapshotChanges between(FeedSnapshot before, long version, ArtistIndex artists, EventIndex events) {
+        if (!before.isLoaded()) {
+            return everything(version);
+        }
+        ArtistIndex oldArtists = before.getArtists();
+        EventIndex oldEvents = before.getEvents();
+        if (oldArtists == artists && oldEvents == events) {
+            return new SnapshotChanges(version, NO_IDS, before.getChanges().recent());
+        }
+        LongList changed = new LongList();
+        for (Artist artist : artists.all()) {
+            if (artist.getId() == null) {
+                continue;
+            }
+            long id = artist.getId();
+            Artist old = oldArtists.get(id);
+            if (old == null || oldArtists != artists && !old.equals(artist)
+                    || oldEvents != events && !oldEvents.eventsFor(id).equals(events.eventsFor(id))) {
+                changed.add(id);
+            }
+        }
+        if (oldArtists != artists) {
+            for (Artist old : oldArtists.all()) {
+                if (old.getId() != null && artists.get(old.getId()) == null) {
+                    changed.add(old.getId());
+                }
+            }
+        }
+        return new SnapshotChanges(version, changed.sortedDistinct(), before.getChanges().recent());
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Whether every artist must be taken as changed, rather than those listed.
+     */
+    public boolean isEverything() {
+        return artistIds == null;
+    }
+
+    /**
+     * Changed artist ids in ascending order; empty when {@link #isEverything()}.
+     */
+    public List<Long> getArtistIds() {
+        return artistIds == null ? List.of() : Arrays.stream(artistIds).boxed().toList();
+    }
+
+    /**
+     * Ids of the artists changed in any snapshot after {@code since} up to this one, or
+     * {@code null} when the kept history does not reach back that far or everything changed.
+     */
+    public long[] artistIdsSince(long since) {
+        LongList changed = new LongList();
+        for (SnapshotChanges changes = this; changes != null && changes.version > since; changes = changes.previous) {
+            if (changes.artistIds == null || changes.previous == null && changes.version - 1 > since) {
+                return null;
+            }
+            for (long id : changes.artistIds) {
+                changed.add(id);
+            }
+        }
+        return changed.sortedDistinct();
+    }
+
+    public boolean contains(long artistId) {
+        return artistIds == null || Arrays.binarySearch(artistIds, artistId) >= 0;
+    }
+
+    /**
+     * Whether the artist's response is the same as it was in snapshot {@code since}, as far as the
+     * kept history tells; older snapshots are taken as changed. Versions are published one apart,
+     * so each change covers the step from the version before it.
+     */
+    public boolean unchangedSince(long since, long artistId) {
+        for (SnapshotChanges changes = this; changes != null && changes.version > since; changes = changes.previous) {
+            if (changes.contains(artistId) || changes.previous == null && changes.version - 1 > since) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * This change and those before it, cut to leave room for one more within {@link #HISTORY}.
+     */
+    private SnapshotChanges recent() {
+        return trimmed(HISTORY - 1);
+    }
+
+    private SnapshotChanges trimmed(int length) {
+        if (length <= 0) {
+            return null;
+        }
+        SnapshotChanges earlier = previous == null ? null : previous.trimmed(length - 1);
+        return earlier == previous ? this : new SnapshotChanges(version, artistIds, earlier);
+    }
+
+    private static final class LongList {
+
+        private long[] values = new long[16];
+
+        private int size;
+
+        void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size << 1);
+            }
+            values[size++] = value;
+        }
+
+        long[] sortedDistinct() {
+            long[] sorted = Arrays.copyOf(values, size);
+            Arrays.sort(sorted);
+            int distinct = 0;
+            for (int i = 0; i < sorted.length; i++) {
+                if (i == 0 || sorted[i] != sorted[i - 1]) {
+                    sorted[distinct++] = sorted[i];
+                }
+            }
+            return Arrays.copyOf(sorted, distinct);
+        }
+
+    }
+
+}
@@ -0,0 +1,15 @@
+package com.tickets.api.artist.snapshot;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables the scheduled snapshot refresh. Kept off {@code ArtistApplication} so that web slice
+ * tests do not start refreshing feeds.
+ */
+@Configuration
+@EnableScheduling
+@EnableConfigurationProperties(SnapshotProperties.class)
+public class SnapshotConfiguration {
+}
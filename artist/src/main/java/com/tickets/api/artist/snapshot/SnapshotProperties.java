@@ -0,0 +1,45 @@
+package com.tickets.api.artist.snapshot;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Settings for loading and refreshing the feed snapshot, bound from {@code snapshot.*}.
+ */
+@Data
+@ConfigurationProperties("snapshot")
+public class SnapshotProperties {
+
+    private Duration refreshInterval = Duration.ofMinutes(5);
+
+    /**
+     * Whether a refresh may publish fresh artists while the events feed is failing or too slow,
+     * keeping the events already loaded - or none, serving artists without events.
+     */
+    private boolean eventsOptional = true;
+
+    /**
+     * Whether a refresh may go ahead while the venue feed is failing or too slow, keeping the
+     * venues already loaded - or none, serving events with their venue id only.
+     */
+    private boolean venuesOptional = true;
+
+    private Store store = new Store();
+
+    /**
+     * Local copy of the last published snapshot, read back on startup so that a new instance serves
+     * the last known-good data while the first refresh runs.
+     */
+    @Data
+    public static class Store {
+
+        private boolean enabled;
+
+        private Path path = Path.of(System.getProperty("java.io.tmpdir"), "tickets-api", "snapshot.bin");
+
+    }
+
+}
@@ -0,0 +1,258 @@
+package com.tickets.api.artist.snapshot;
+
+import com.tickets.api.artist.dto.Artist;
+import com.tickets.api.artist.dto.Events;
+import com.tickets.api.artist.dto.Venue;
+import com.tickets.api.artist.upstream.FeedClient;
+import com.tickets.api.artist.upstream.FeedResponse;
+import com.tickets.api.artist.upstream.FeedVersion;
+import com.tickets.api.artist.upstream.SingleFlight;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Owns the published {@link FeedSnapshot}. All feeds are fetched concurrently on startup and then
+ * on the {@code snapshot.refresh-interval} schedule; a failed refresh keeps serving the previous
+ * snapshot. With {@code snapshot.store.enabled}, every published snapshot is also written to local
+ * disk and the last one is served from startup until the first refresh completes.
+ * <p>
+ * Every published snapshot carries the {@link SnapshotChanges} from the one before it, which are
+ * also emitted on {@link #changes()} once the snapshot is being served.
+ */
+@Slf4j
+@Service
+public class SnapshotService {
+
+    private final FeedClient feedClient;
+
+    private final AtomicReference<FeedSnapshot> current = new AtomicReference<>(FeedSnapshot.EMPTY);
+
+    private final AtomicLong versions = new AtomicLong();
+
+    private final SingleFlight<String> refreshes = new SingleFlight<>();
+
+    private final Sinks.Many<SnapshotChanges> changes = Sinks.many().multicast().directBestEffort();
+
+    private final SnapshotProperties properties;
+
+    private final SnapshotStore store;
+
+    private final MeterRegistry meterRegistry;
+
+    public SnapshotService(FeedClient feedClient, SnapshotProperties properties, MeterRegistry meterRegistry) {
+        this.feedClient = feedClient;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.store = properties.getStore().isEnabled() ? new SnapshotStore(properties.getStore().getPath()) : null;
+        registerGauges();
+        restore();
+    }
+
+    public FeedSnapshot current() {
+        return current.get();
+    }
+
+    /**
+     * Resolves the published snapshot, loading the feeds first when nothing has been loaded yet.
+     */
+    public Mono<FeedSnapshot> snapshot() {
+        FeedSnapshot snapshot = current.get();
+        return snapshot.isLoaded() ? Mono.just(snapshot) : refresh();
+    }
+
+    /**
+     * Fetches every feed conditionally on the versions already loaded and publishes a new snapshot
+     * if any changed. An unchanged feed keeps its existing index; events are re-joined whenever
+     * either the events or the venues changed. Callers arriving while a refresh is running - a
+     * burst of requests before the first load, or the schedule firing meanwhile - share that
+     * refresh.
+     */
+    public Mono<FeedSnapshot> refresh() {
+        return refreshes.execute("refresh", this::timedLoad);
+    }
+
+    public SingleFlight<String> refreshes() {
+        return refreshes;
+    }
+
+    /**
+     * Changes of every snapshot published from now on, emitted right after it is published.
+     * Subscribers that cannot keep up miss changes rather than hold up the refresh; a gap in the
+     * versions received means that everything must be taken as changed.
+     */
+    public Flux<SnapshotChanges> changes() {
+        return changes.asFlux();
+    }
+
+    private Mono<FeedSnapshot> timedLoad() {
+        FeedSnapshot previous = current.get();
+        Timer.Sample sample = Timer.start(meterRegistry);
+        return load()
+                .doOnSuccess(snapshot -> sample.stop(refreshTimer(snapshot == previous ? "unchanged" : "published")))
+                .doOnError(error -> sample.stop(refreshTimer("error")));
+    }
+
+    private Timer refreshTimer(String outcome) {
+        return Timer.builder("snapshot.refresh")
+                .description("Time to refresh the snapshot from the upstream feeds")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Age and size of whatever snapshot is published when the gauges are read.
+     */
+    private void registerGauges() {
+        TimeGauge.builder("snapshot.age", this, TimeUnit.MILLISECONDS, service -> {
+                    FeedSnapshot snapshot = service.current();
+                    return snapshot.isLoaded() ? Duration.between(snapshot.getLoadedAt(), Instant.now()).toMillis() : Double.NaN;
+                })
+                .description("Time since the published snapshot was loaded from the upstream feeds")
+                .register(meterRegistry);
+        Gauge.builder("snapshot.version", this, service -> service.current().getVersion())
+                .register(meterRegistry);
+        Gauge.builder("snapshot.records", this, service -> service.current().getArtists().size())
+                .tag("feed", "artist")
+                .register(meterRegistry);
+        Gauge.builder("snapshot.records", this, service -> service.current().getEvents().size())
+                .tag("feed", "events")
+                .register(meterRegistry);
+        Gauge.builder("snapshot.records", this, service -> service.current().getVenues().size())
+                .tag("feed", "venues")
+                .register(meterRegistry);
+        Gauge.builder("snapshot.index.postings", this, service -> service.current().getEvents().postingCount())
+                .description("Event postings held by the artist index of the published snapshot")
+                .register(meterRegistry);
+        Gauge.builder("snapshot.index.artists", this, service -> service.current().getEvents().artistCount())
+                .description("Artists with at least one event in the published snapshot")
+                .register(meterRegistry);
+    }
+
+    private Timer indexBuildTimer() {
+        return Timer.builder("snapshot.index.build")
+                .description("Time to build the event index of a snapshot")
+                .register(meterRegistry);
+    }
+
+    private Mono<FeedSnapshot> load() {
+        FeedSnapshot previous = current.get();
+        return Mono.zip(
+                        feedClient.fetchArtists(previous.getArtistsVersion()),
+                        optional(feedClient.fetchEvents(previous.getEventsVersion()), properties.isEventsOptional(), "events", previous.getEventsVersion()),
+                        optional(feedClient.fetchVenues(previous.getVenuesVersion()), properties.isVenuesOptional(), "venues", previous.getVenuesVersion()))
+                .map(feeds -> {
+                    FeedResponse<Artist> artists = feeds.getT1();
+                    FeedResponse<Events> events = feeds.getT2();
+                    FeedResponse<Venue> venues = feeds.getT3();
+                    if (!artists.isModified() && !events.isModified() && !venues.isModified()) {
+                        log.info("feeds unchanged, keeping snapshot version {}", previous.getVersion());
+                        return previous;
+                    }
+                    VenueIndex venueIndex = venues.isModified() ? VenueIndex.build(venues.getRecords()) : previous.getVenues();
+                    EventIndex eventIndex = previous.getEvents();
+                    if (events.isModified()) {
+                        eventIndex = EventIndex.build(events.getRecords(), venueIndex);
+                    } else if (venues.isModified()) {
+                        eventIndex = EventIndex.build(eventIndex.all(), venueIndex);
+                    }
+                    return publish(previous,
+                            artists.isModified() ? ArtistIndex.build(artists.getRecords()) : previous.getArtists(), artists.getVersion(),
+                            eventIndex, events.getVersion(),
+                            venueIndex, venues.getVersion());
+                })
+                .flatMap(snapshot -> snapshot == previous ? Mono.just(snapshot) : store(snapshot));
+    }
+
+    /**
+     * Publishes the stored snapshot, if there is one, so that requests are served from it until the
+     * first refresh - which fetches conditionally on the stored feed versions - completes.
+     */
+    private void restore() {
+        if (store == null) {
+            return;
+        }
+        FeedSnapshot stored = store.load(versions.get() + 1);
+        if (stored != null) {
+            versions.incrementAndGet();
+            current.set(stored);
+        }
+    }
+
+    /**
+     * Writes a newly published snapshot to the store off the event loop. Failing to store it only
+     * costs the next instance a warm start, so errors are logged and the refresh still succeeds.
+     */
+    private Mono<FeedSnapshot> store(FeedSnapshot snapshot) {
+        if (store == null) {
+            return Mono.just(snapshot);
+        }
+        return Mono.fromCallable(() -> {
+                    store.save(snapshot);
+                    return snapshot;
+                })
+                .subscribeOn(Schedulers.boundedElastic())
+                .onErrorResume(error -> {
+                    log.warn("could not store snapshot version {}", snapshot.getVersion(), error);
+                    return Mono.just(snapshot);
+                });
+    }
+
+    /**
+     * Lets a refresh go ahead without a failing or slow feed, keeping what was already loaded.
+     */
+    private static <T> Mono<FeedResponse<T>> optional(Mono<FeedResponse<T>> feed, boolean optional, String name, FeedVersion loaded) {
+        if (!optional) {
+            return feed;
+        }
+        return feed.onErrorResume(error -> {
+            log.warn("{} feed unavailable, keeping what was already loaded", name, error);
+            return Mono.just(FeedResponse.notModified(loaded));
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${snapshot.refresh-interval}")
+    public void scheduledRefresh() {
+        try {
+            refresh().block();
+        } catch (RuntimeException e) {
+            log.warn("snapshot refresh failed, still serving version {}", current().getVersion(), e);
+        }
+    }
+
+    private FeedSnapshot publish(FeedSnapshot previous, ArtistIndex artists, FeedVersion artistsVersion, EventIndex events, FeedVersion eventsVersion,
+                                 VenueIndex venues, FeedVersion venuesVersion) {
+        long version = versions.incrementAndGet();
+        SnapshotChanges snapshotChanges = SnapshotChanges.between(previous, version, artists, events);
+        FeedSnapshot snapshot = new FeedSnapshot(version, Instant.now(),
+                artists, artistsVersion, events, eventsVersion, venues, venuesVersion, snapshotChanges);
+        current.set(snapshot);
+        if (events != previous.getEvents()) {
+            indexBuildTimer().record(events.buildTime());
+        }
+        log.info("published snapshot version {} with {} artists, {} events and {} venues, event index holds {} postings for {} artists built in {} ms",
+                snapshot.getVersion(), artists.size(), events.size(), venues.size(), events.postingCount(), events.artistCount(), events.buildTime().toMillis());
+        log.info("snapshot version {} changes {} artists", version,
+                snapshotChanges.isEverything() ? "all" : snapshotChanges.getArtistIds().size());
+        Sinks.EmitResult emitted = changes.tryEmitNext(snapshotChanges);
+        if (emitted.isFailure() && emitted != Sinks.EmitResult.FAIL_ZERO_SUBSCRIBER) {
+            log.warn("could not emit changes of snapshot version {}: {}", version, emitted);
+        }
+        return snapshot;
+    }
+
+}
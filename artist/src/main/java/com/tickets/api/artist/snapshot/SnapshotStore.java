@@ -0,0 +1,296 @@
+package com.tickets.api.artist.snapshot;
+
+import com.tickets.api.artist.dto.Artist;
+import com.tickets.api.artist.dto.Events;
+import com.tickets.api.artist.dto.Venue;
+import com.tickets.api.artist.upstream.FeedVersion;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keeps the last published snapshot in a local binary file, so that a starting instance can serve
+ * the last known-good data straight away and leave the feeds to the background refresh.
+ * <p>
+ * The file holds the records and feed versions, not the indexes: those are rebuilt on load, which
+ * takes milliseconds next to downloading and decoding the feeds. It starts with a magic number and
+ * a format version; a file in any other format is ignored and the feeds are loaded from scratch.
+ * Files are written next to the target, synced to disk and moved over it, so neither a reader nor
+ * an instance starting after a crash sees half a file.
+ */
+@Slf4j
+final class SnapshotStore {
+
+    static final int MAGIC = 0x544B5353;
+
+    static final int FORMAT_VERSION = 1;
+
+    private static final int NULL_LENGTH = -1;
+
+    private final Path path;
+
+    SnapshotStore(Path path) {
+        this.path = path;
+    }
+
+    void save(FeedSnapshot snapshot) throws IOException {
+        long started = System.nanoTime();
+        Files.createDirectories(path.toAbsolutePath().getParent());
+        Path partial = path.resolveSibling(path.getFileName() + ".partial");
+        try (FileChannel channel = FileChannel.open(partial, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)));
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeLong(snapshot.getLoadedAt().getEpochSecond());
+            out.writeInt(snapshot.getLoadedAt().getNano());
+            writeVersion(out, snapshot.getArtistsVersion());
+            writeVersion(out, snapshot.getEventsVersion());
+            writeVersion(out, snapshot.getVenuesVersion());
+            List<Artist> artists = snapshot.getArtists().all();
+            out.writeInt(artists.size());
+            for (Artist artist : artists) {
+                writeArtist(out, artist);
+            }
+            List<Events> events = snapshot.getEvents().all();
+            out.writeInt(events.size());
+            for (Events event : events) {
+                writeEvent(out, event);
+            }
+            List<Venue> venues = snapshot.getVenues().all();
+            out.writeInt(venues.size());
+            for (Venue venue : venues) {
+                writeVenue(out, venue);
+            }
+            out.flush();
+            channel.force(true);
+        }
+        Files.move(partial, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        forceDirectory(path.toAbsolutePath().getParent());
+        log.info("stored snapshot version {} in {} ({} bytes) in {} ms",
+                snapshot.getVersion(), path, Files.size(path), (System.nanoTime() - started) / 1_000_000);
+    }
+
+    /**
+     * Syncs the directory entry of a moved file, so that the move survives a crash as well as the
+     * contents. Directories cannot be opened as channels on every platform; where they cannot, the
+     * move is left to the file system.
+     */
+    private static void forceDirectory(Path directory) {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            log.debug("could not sync directory {}", directory, e);
+        }
+    }
+
+    /**
+     * Reads the stored snapshot back through a memory mapping of the file and publishes it under the
+     * given version, or returns {@code null} when there is no usable file.
+     */
+    FeedSnapshot load(long version) {
+        long started = System.nanoTime();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer in = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (in.remaining() < Integer.BYTES * 2 || in.getInt() != MAGIC) {
+                log.warn("{} is not a stored snapshot, loading feeds from scratch", path);
+                return null;
+            }
+            int format = in.getInt();
+            if (format != FORMAT_VERSION) {
+                log.info("{} holds snapshot format {} instead of {}, loading feeds from scratch", path, format, FORMAT_VERSION);
+                return null;
+            }
+            Instant loadedAt = Instant.ofEpochSecond(in.getLong(), in.getInt());
+            FeedVersion artistsVersion = readVersion(in);
+            FeedVersion eventsVersion = readVersion(in);
+            FeedVersion venuesVersion = readVersion(in);
+            List<Artist> artists = new ArrayList<>();
+            for (int count = readCount(in); count > 0; count--) {
+                artists.add(readArtist(in));
+            }
+            List<Events> events = new ArrayList<>();
+            for (int count = readCount(in); count > 0; count--) {
+                events.add(readEvent(in));
+            }
+            List<Venue> venues = new ArrayList<>();
+            for (int count = readCount(in); count > 0; count--) {
+                venues.add(readVenue(in));
+            }
+            VenueIndex venueIndex = VenueIndex.build(venues);
+            FeedSnapshot snapshot = new FeedSnapshot(version, loadedAt,
+                    ArtistIndex.build(artists), artistsVersion,
+                    EventIndex.build(events, venueIndex), eventsVersion,
+                    venueIndex, venuesVersion, SnapshotChanges.everything(version));
+            log.info("restored snapshot loaded at {} from {} with {} artists, {} events and {} venues in {} ms",
+                    loadedAt, path, artists.size(), events.size(), venues.size(), (System.nanoTime() - started) / 1_000_000);
+            return snapshot;
+        } catch (NoSuchFileException e) {
+            log.info("no stored snapshot at {}, loading feeds from scratch", path);
+            return null;
+        } catch (IOException | BufferUnderflowException | IllegalArgumentException | DateTimeException e) {
+            log.warn("stored snapshot at {} is unreadable, loading feeds from scratch", path, e);
+            return null;
+        }
+    }
+
+    private static void writeArtist(DataOutputStream out, Artist artist) throws IOException {
+        writeId(out, artist.getId());
+        writeString(out, artist.getName());
+        writeString(out, artist.getImgSrc());
+        writeString(out, artist.getUrl());
+        out.writeLong(artist.getRank());
+    }
+
+    private static Artist readArtist(ByteBuffer in) {
+        Artist artist = new Artist();
+        artist.setId(readId(in));
+        artist.setName(readString(in));
+        artist.setImgSrc(readString(in));
+        artist.setUrl(readString(in));
+        artist.setRank(in.getLong());
+        return artist;
+    }
+
+    private static void writeEvent(DataOutputStream out, Events event) throws IOException {
+        writeId(out, event.getId());
+        writeString(out, event.getTitle());
+        writeString(out, event.getDateStatus());
+        writeString(out, event.getTimeZone());
+        LocalDateTime startDate = event.getStartDate();
+        out.writeBoolean(startDate != null);
+        if (startDate != null) {
+            out.writeLong(startDate.toEpochSecond(ZoneOffset.UTC));
+            out.writeInt(startDate.getNano());
+        }
+        out.writeBoolean(event.isHiddenFromSearch());
+        Artist[] artists = event.getArtists();
+        out.writeInt(artists == null ? NULL_LENGTH : artists.length);
+        if (artists != null) {
+            for (Artist artist : artists) {
+                writeId(out, artist.getId());
+            }
+        }
+        out.writeBoolean(event.getVenue() != null);
+        if (event.getVenue() != null) {
+            writeId(out, event.getVenue().getId());
+        }
+    }
+
+    private static Events readEvent(ByteBuffer in) {
+        Events event = new Events();
+        event.setId(readId(in));
+        event.setTitle(readString(in));
+        event.setDateStatus(readString(in));
+        event.setTimeZone(readString(in));
+        if (in.get() != 0) {
+            event.setStartDate(LocalDateTime.ofEpochSecond(in.getLong(), in.getInt(), ZoneOffset.UTC));
+        }
+        event.setHiddenFromSearch(in.get() != 0);
+        int artistCount = in.getInt();
+        if (artistCount < NULL_LENGTH) {
+            throw new IllegalArgumentException("negative artist count at position " + in.position());
+        }
+        if (artistCount != NULL_LENGTH) {
+            Artist[] artists = new Artist[artistCount];
+            for (int i = 0; i < artistCount; i++) {
+                artists[i] = new Artist();
+                artists[i].setId(readId(in));
+            }
+            event.setArtists(artists);
+        }
+        if (in.get() != 0) {
+            Venue venue = new Venue();
+            venue.setId(readId(in));
+            event.setVenue(venue);
+        }
+        return event;
+    }
+
+    private static void writeVenue(DataOutputStream out, Venue venue) throws IOException {
+        writeId(out, venue.getId());
+        writeString(out, venue.getName());
+        writeString(out, venue.getUrl());
+        writeString(out, venue.getCity());
+    }
+
+    private static Venue readVenue(ByteBuffer in) {
+        Venue venue = new Venue();
+        venue.setId(readId(in));
+        venue.setName(readString(in));
+        venue.setUrl(readString(in));
+        venue.setCity(readString(in));
+        return venue;
+    }
+
+    private static void writeVersion(DataOutputStream out, FeedVersion version) throws IOException {
+        writeString(out, version.getEtag());
+        writeString(out, version.getLastModified());
+        writeString(out, version.getContentHash());
+    }
+
+    private static FeedVersion readVersion(ByteBuffer in) {
+        FeedVersion version = new FeedVersion(readString(in), readString(in), readString(in));
+        return FeedVersion.NONE.equals(version) ? FeedVersion.NONE : version;
+    }
+
+    private static void writeId(DataOutputStream out, Long id) throws IOException {
+        out.writeBoolean(id != null);
+        if (id != null) {
+            out.writeLong(id);
+        }
+    }
+
+    private static Long readId(ByteBuffer in) {
+        return in.get() != 0 ? in.getLong() : null;
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(NULL_LENGTH);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer in) {
+        int length = in.getInt();
+        if (length == NULL_LENGTH) {
+            return null;
+        }
+        if (length < 0 || length > in.remaining()) {
+            throw new IllegalArgumentException("string of " + length + " bytes at position " + in.position());
+        }
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static int readCount(ByteBuffer in) {
+        int count = in.getInt();
+        if (count < 0) {
+            throw new IllegalArgumentException("negative record count at position " + in.position());
+        }
+        return count;
+    }
+
+}
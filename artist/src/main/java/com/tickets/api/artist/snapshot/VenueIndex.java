@@ -0,0 +1,46 @@
+package com.tickets.api.artist.snapshot;
+
+import com.tickets.api.artist.dto.Venue;
+
+import java.util.List;
+
+/**
+ * Venues from one load of the venue feed, keyed by id.
+ */
+public final class VenueIndex {
+
+    static final VenueIndex EMPTY = build(List.of());
+
+    private final List<Venue> venues;
+
+    private final LongObjectHashMap<Venue> byId;
+
+    private VenueIndex(List<Venue> venues, LongObjectHashMap<Venue> byId) {
+        this.venues = venues;
+        this.byId = byId;
+    }
+
+    public static VenueIndex build(List<Venue> venues) {
+        List<Venue> ordered = List.copyOf(venues);
+        LongObjectHashMap<Venue> byId = new LongObjectHashMap<>(ordered.size());
+        for (Venue venue : ordered) {
+            if (venue.getId() != null) {
+                byId.put(venue.getId(), venue);
+            }
+        }
+        return new VenueIndex(ordered, byId);
+    }
+
+    public Venue get(long id) {
+        return byId.get(id);
+    }
+
+    public List<Venue> all() {
+        return venues;
+    }
+
+    public int size() {
+        return byId.size();
+    }
+
+}
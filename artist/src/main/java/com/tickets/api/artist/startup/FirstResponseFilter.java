@@ -0,0 +1,61 @@
+package com.tickets.api.artist.startup;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.LongSupplier;
+
+/**
+ * Records the time from JVM start to the first successful API response as the
+ * {@code application.first.response.time} gauge, next to actuator's
+ * {@code application.started.time} and {@code application.ready.time}. It covers what those
+ * leave out: the classes loaded and the snapshot loaded to serve the first request. Actuator
+ * requests do not count.
+ */
+@Slf4j
+public class FirstResponseFilter implements WebFilter {
+
+    private static final String ACTUATOR_PATH = "/actuator";
+
+    private final AtomicBoolean recorded = new AtomicBoolean();
+
+    private final LongSupplier uptimeMillis;
+
+    private volatile double firstResponseMillis = Double.NaN;
+
+    public FirstResponseFilter(MeterRegistry meterRegistry) {
+        this(meterRegistry, () -> ManagementFactory.getRuntimeMXBean().getUptime());
+    }
+
+    FirstResponseFilter(MeterRegistry meterRegistry, LongSupplier uptimeMillis) {
+        this.uptimeMillis = uptimeMillis;
+        TimeGauge.builder("application.first.response.time", this, TimeUnit.MILLISECONDS, filter -> filter.firstResponseMillis)
+                .description("Time from JVM start to the first successful API response")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        if (recorded.get() || exchange.getRequest().getPath().pathWithinApplication().value().startsWith(ACTUATOR_PATH)) {
+            return chain.filter(exchange);
+        }
+        return chain.filter(exchange)
+                .doOnSuccess(done -> {
+                    HttpStatusCode status = exchange.getResponse().getStatusCode();
+                    if ((status == null || status.is2xxSuccessful()) && recorded.compareAndSet(false, true)) {
+                        firstResponseMillis = uptimeMillis.getAsLong();
+                        log.info("first successful response to {} after {} ms", exchange.getRequest().getPath(), (long) firstResponseMillis);
+                    }
+                });
+    }
+
+}
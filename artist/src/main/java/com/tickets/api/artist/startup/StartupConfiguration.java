@@ -0,0 +1,27 @@
+package com.tickets.api.artist.startup;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Registers the startup time measurement and the training run. Ahead-of-time processing fixes bean
+ * conditions at build time, so the training run is switched on and off where it runs instead.
+ */
+@Configuration
+@EnableConfigurationProperties(StartupProperties.class)
+public class StartupConfiguration {
+
+    @Bean
+    public FirstResponseFilter firstResponseFilter(MeterRegistry meterRegistry) {
+        return new FirstResponseFilter(meterRegistry);
+    }
+
+    @Bean
+    public StartupTraining startupTraining(StartupProperties properties, @Value("${spring.webflux.base-path:}") String basePath) {
+        return new StartupTraining(properties.getTraining(), basePath);
+    }
+
+}
@@ -0,0 +1,39 @@
+package com.tickets.api.artist.startup;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Settings of the startup-optimised run mode, bound from {@code startup.*}.
+ */
+@Data
+@ConfigurationProperties("startup")
+public class StartupProperties {
+
+    private Training training = new Training();
+
+    /**
+     * A training run starts the application, sends it the configured requests so that the classes
+     * serving them are loaded, and exits. Run with {@code -XX:ArchiveClassesAtExit}, it leaves a
+     * class data sharing archive for later runs to start from.
+     */
+    @Data
+    public static class Training {
+
+        private boolean enabled;
+
+        /**
+         * Paths requested during training, relative to the base path. Failed requests are logged
+         * and do not stop the training.
+         */
+        private List<String> paths = new ArrayList<>(List.of("/actuator/health"));
+
+        private Duration timeout = Duration.ofSeconds(30);
+
+    }
+
+}
@@ -0,0 +1,51 @@
+package com.tickets.api.artist.startup;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.web.reactive.context.ReactiveWebServerApplicationContext;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Training run for the class data sharing archive: with {@code startup.training.enabled}, once the
+ * application is ready, requests each configured path from itself, one after the other, then
+ * shuts the application down and exits.
+ */
+@Slf4j
+public class StartupTraining implements ApplicationListener<ApplicationReadyEvent> {
+
+    private final StartupProperties.Training training;
+
+    private final String basePath;
+
+    public StartupTraining(StartupProperties.Training training, String basePath) {
+        this.training = training;
+        this.basePath = basePath;
+    }
+
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+        if (!training.isEnabled()) {
+            return;
+        }
+        ConfigurableApplicationContext context = event.getApplicationContext();
+        int port = ((ReactiveWebServerApplicationContext) context).getWebServer().getPort();
+        WebClient webClient = WebClient.create("http://localhost:" + port + basePath);
+        Flux.fromIterable(training.getPaths())
+                .concatMap(path -> webClient.get().uri(path).retrieve().toBodilessEntity()
+                        .doOnNext(response -> log.info("training request to {} answered {}", path, response.getStatusCode()))
+                        .onErrorResume(error -> {
+                            log.warn("training request to {} failed: {}", path, error.toString());
+                            return Mono.empty();
+                        }))
+                .then()
+                .block(training.getTimeout());
+        log.info("training run complete, exiting");
+        System.exit(SpringApplication.exit(context));
+    }
+
+}
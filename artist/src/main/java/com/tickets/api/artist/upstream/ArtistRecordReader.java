@@ -0,0 +1,45 @@
+package com.tickets.api.artist.upstream;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.tickets.api.artist.dto.Artist;
+
+import java.io.IOException;
+
+/**
+ * Binds the artist feed fields returned by the API.
+ */
+class ArtistRecordReader extends FeedRecordReader<Artist> {
+
+    private Artist artist;
+
+    @Override
+    protected void begin() {
+        artist = new Artist();
+    }
+
+    @Override
+    protected void value(int level, String topField, String field, JsonParser parser) throws IOException {
+        if (level != 1) {
+            return;
+        }
+        switch (field) {
+            case "id" -> artist.setId(longValue(parser));
+            case "name" -> artist.setName(text(parser));
+            case "imgSrc" -> artist.setImgSrc(text(parser));
+            case "url" -> artist.setUrl(text(parser));
+            case "rank" -> {
+                Long rank = longValue(parser);
+                artist.setRank(rank == null ? 0 : rank);
+            }
+            default -> {
+                // not served
+            }
+        }
+    }
+
+    @Override
+    protected Artist end() {
+        return artist;
+    }
+
+}
@@ -0,0 +1,60 @@
+package com.tickets.api.artist.upstream;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.tickets.api.artist.dto.Artist;
+import com.tickets.api.artist.dto.Events;
+import com.tickets.api.artist.dto.Venue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Binds the events feed fields returned by the API, plus the ids of the event's artists that the
+ * artist-to-events index is built from and the id of its venue, which is joined from the venue
+ * feed when the snapshot is built.
+ */
+class EventsRecordReader extends FeedRecordReader<Events> {
+
+    private final List<Artist> artists = new ArrayList<>();
+
+    private Events events;
+
+    @Override
+    protected void begin() {
+        events = new Events();
+        artists.clear();
+    }
+
+    @Override
+    protected void value(int level, String topField, String field, JsonParser parser) throws IOException {
+        if (level == 1) {
+            switch (field) {
+                case "id" -> events.setId(longValue(parser));
+                case "title" -> events.setTitle(text(parser));
+                case "dateStatus" -> events.setDateStatus(text(parser));
+                case "timeZone" -> events.setTimeZone(text(parser));
+                case "startDate" -> events.setStartDate(dateTimeValue(parser));
+                case "hiddenFromSearch" -> events.setHiddenFromSearch(parser.getValueAsBoolean());
+                default -> {
+                    // not served
+                }
+            }
+        } else if (level == 3 && "artists".equals(topField) && "id".equals(field)) {
+            Artist artist = new Artist();
+            artist.setId(longValue(parser));
+            artists.add(artist);
+        } else if (level == 2 && "venue".equals(topField) && "id".equals(field)) {
+            Venue venue = new Venue();
+            venue.setId(longValue(parser));
+            events.setVenue(venue);
+        }
+    }
+
+    @Override
+    protected Events end() {
+        events.setArtists(artists.toArray(new Artist[0]));
+        return events;
+    }
+
+}
@@ -0,0 +1,247 @@
+package com.tickets.api.artist.upstream;
+
+import com.tickets.api.artist.dto.Artist;
+import com.tickets.api.artist.dto.Events;
+import com.tickets.api.artist.dto.Venue;
+import com.tickets.api.artist.limit.AdaptiveLimiter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Downloads the upstream feeds. Only the snapshot loader talks to this class; request handling is
+ * served from the loaded snapshot.
+ * <p>
+ * Fetches are conditional on the {@link FeedVersion} of the content already loaded: its validators
+ * are sent as {@code If-None-Match} / {@code If-Modified-Since}, and when the upstream sends no
+ * validators the body hash is compared instead, so an unchanged feed never rebuilds the snapshot.
+ */
+@Slf4j
+@Component
+public class FeedClient {
+
+    private static final JsonFeedDecoder<Artist> ARTISTS = JsonFeedDecoder.artists();
+
+    private static final JsonFeedDecoder<Events> EVENTS = JsonFeedDecoder.events();
+
+    private static final JsonFeedDecoder<Venue> VENUES = JsonFeedDecoder.venues();
+
+    private static final int LATENCY_SAMPLES = 64;
+
+    private final WebClient webClient;
+
+    private final SingleFlight<String> fetches = new SingleFlight<>();
+
+    private final UpstreamProperties properties;
+
+    private final LatencyWindow artistLatencies = new LatencyWindow(LATENCY_SAMPLES);
+
+    private final LatencyWindow eventsLatencies = new LatencyWindow(LATENCY_SAMPLES);
+
+    private final LatencyWindow venuesLatencies = new LatencyWindow(LATENCY_SAMPLES);
+
+    private String artistURI;
+
+    private String eventsURI;
+
+    private String venuesURI;
+
+    private final AdaptiveLimiter limiter;
+
+    private final MeterRegistry meterRegistry;
+
+    public FeedClient(WebClient upstreamWebClient, @Value("${url.artist}") String artistURI, @Value("${url.events}") String eventsURI,
+                      @Value("${url.venues}") String venuesURI, UpstreamProperties properties, MeterRegistry meterRegistry) {
+        this.webClient = upstreamWebClient;
+        this.artistURI = artistURI;
+        this.eventsURI = eventsURI;
+        this.venuesURI = venuesURI;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.limiter = properties.getLimit().isEnabled() ? new AdaptiveLimiter("upstream", properties.getLimit(), meterRegistry) : null;
+    }
+
+    public Mono<FeedResponse<Artist>> fetchArtists(FeedVersion current) {
+        return fetch("artist", artistURI, ARTISTS, current, properties.getArtist(), artistLatencies);
+    }
+
+    public Mono<FeedResponse<Events>> fetchEvents(FeedVersion current) {
+        return fetch("events", eventsURI, EVENTS, current, properties.getEvents(), eventsLatencies);
+    }
+
+    public Mono<FeedResponse<Venue>> fetchVenues(FeedVersion current) {
+        return fetch("venues", venuesURI, VENUES, current, properties.getVenues(), venuesLatencies);
+    }
+
+    /**
+     * Concurrent fetches of the same feed share one download and its decoded result.
+     */
+    public SingleFlight<String> fetches() {
+        return fetches;
+    }
+
+    /**
+     * Each feed has its own timeout, covering the hedged download too; the hedge sits under the
+     * single flight so that it is not folded into the call it is racing. The {@code upstream.fetch}
+     * timer covers the whole fetch, hedge and timeout included. Every download, hedged or not,
+     * holds a permit of the upstream limiter; a hedge over the limit is not sent and the first
+     * download carries on alone.
+     */
+    private <T> Mono<FeedResponse<T>> fetch(String feed, String uri, JsonFeedDecoder<T> decoder, FeedVersion current,
+                                            UpstreamProperties.Leg leg, LatencyWindow latencies) {
+        return fetches.execute(uri, () -> measured(feed, hedged(uri, latencies, () -> limited(() -> timed(latencies, download(feed, uri, decoder, current))))
+                .timeout(leg.getTimeout())));
+    }
+
+    /**
+     * The limiter on downloads, or null when {@code upstream.limit.enabled} is off.
+     */
+    public AdaptiveLimiter limiter() {
+        return limiter;
+    }
+
+    private <T> Mono<T> limited(Supplier<Mono<T>> call) {
+        return limiter == null ? Mono.defer(call) : limiter.limit(Mono.defer(call));
+    }
+
+    private <T> Mono<FeedResponse<T>> measured(String feed, Mono<FeedResponse<T>> fetch) {
+        return Mono.defer(() -> {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            return fetch
+                    .doOnSuccess(response -> sample.stop(fetchTimer(feed, response.isModified() ? "modified" : "not_modified")))
+                    .doOnError(error -> sample.stop(fetchTimer(feed, "error")));
+        });
+    }
+
+    private Timer fetchTimer(String feed, String outcome) {
+        return Timer.builder("upstream.fetch")
+                .description("Time to fetch and decode an upstream feed")
+                .tag("feed", feed)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private <T> Mono<T> hedged(String uri, LatencyWindow latencies, Supplier<Mono<T>> call) {
+        UpstreamProperties.Hedge hedge = properties.getHedge();
+        if (!hedge.isEnabled()) {
+            return Mono.defer(call);
+        }
+        Duration observed = latencies.percentile(hedge.getPercentile());
+        Duration delay = observed == null || observed.compareTo(hedge.getMinDelay()) < 0 ? hedge.getMinDelay() : observed;
+        return Mono.firstWithValue(
+                Mono.defer(call),
+                Mono.delay(delay).then(Mono.defer(() -> {
+                    log.info("feed {} slower than {} ms, sending hedged request", uri, delay.toMillis());
+                    return call.get();
+                })));
+    }
+
+    private static <T> Mono<T> timed(LatencyWindow latencies, Mono<T> call) {
+        return Mono.defer(() -> {
+            long started = System.nanoTime();
+            return call.doOnSuccess(result -> latencies.record(Duration.ofNanos(System.nanoTime() - started)));
+        });
+    }
+
+    private <T> Mono<FeedResponse<T>> download(String feed, String uri, JsonFeedDecoder<T> decoder, FeedVersion current) {
+        log.info("fetching feed {}", uri);
+        return webClient.get()
+                .uri(uri)
+                .accept(MediaType.APPLICATION_JSON)
+                .headers(headers -> {
+                    if (current.getEtag() != null) {
+                        headers.setIfNoneMatch(current.getEtag());
+                    }
+                    if (current.getLastModified() != null) {
+                        headers.set(HttpHeaders.IF_MODIFIED_SINCE, current.getLastModified());
+                    }
+                })
+                .exchangeToMono(response -> {
+                    if (response.statusCode().isSameCodeAs(HttpStatus.NOT_MODIFIED)) {
+                        log.info("feed {} not modified", uri);
+                        return response.releaseBody().thenReturn(FeedResponse.notModified(current));
+                    }
+                    if (response.statusCode().isSameCodeAs(HttpStatus.INTERNAL_SERVER_ERROR)) {
+                        return response.releaseBody().then(Mono.error(new RuntimeException(HttpStatus.INTERNAL_SERVER_ERROR.toString())));
+                    }
+                    if (response.statusCode().isError()) {
+                        return response.createError();
+                    }
+                    return decode(feed, uri, response, decoder, current);
+                });
+    }
+
+    /**
+     * Streams the feed body through the decoder, so large feeds are neither buffered nor subject
+     * to the codec's in-memory limit. The body is hashed on the way through only when the upstream
+     * sent no validators to compare against next time.
+     */
+    private <T> Mono<FeedResponse<T>> decode(String feed, String uri, ClientResponse response, JsonFeedDecoder<T> decoder, FeedVersion current) {
+        HttpHeaders headers = response.headers().asHttpHeaders();
+        String etag = headers.getETag();
+        String lastModified = headers.getFirst(HttpHeaders.LAST_MODIFIED);
+        MessageDigest digest = etag == null && lastModified == null ? sha256() : null;
+        long[] bytes = new long[1];
+        Flux<DataBuffer> body = response.bodyToFlux(DataBuffer.class)
+                .doOnNext(buffer -> bytes[0] += buffer.readableByteCount());
+        if (digest != null) {
+            body = body.doOnNext(buffer -> {
+                try (DataBuffer.ByteBufferIterator buffers = buffer.readableByteBuffers()) {
+                    while (buffers.hasNext()) {
+                        ByteBuffer byteBuffer = buffers.next();
+                        digest.update(byteBuffer);
+                    }
+                }
+            });
+        }
+        return decoder.decode(body, nanos -> Timer.builder("upstream.decode")
+                        .description("Time spent parsing an upstream feed, network waits excluded")
+                        .tag("feed", feed)
+                        .register(meterRegistry)
+                        .record(nanos, TimeUnit.NANOSECONDS))
+                .collectList()
+                .map(records -> {
+                    DistributionSummary.builder("upstream.fetch.bytes")
+                            .description("Size of an upstream feed body, after decompression")
+                            .baseUnit("bytes")
+                            .tag("feed", feed)
+                            .register(meterRegistry)
+                            .record(bytes[0]);
+                    String contentHash = digest == null ? null : HexFormat.of().formatHex(digest.digest());
+                    FeedVersion version = new FeedVersion(etag, lastModified, contentHash);
+                    if (contentHash != null && contentHash.equals(current.getContentHash())) {
+                        log.info("feed {} content unchanged", uri);
+                        return FeedResponse.notModified(version);
+                    }
+                    return FeedResponse.modified(records, version);
+                });
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+}
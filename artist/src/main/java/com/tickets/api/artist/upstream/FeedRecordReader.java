@@ -0,0 +1,55 @@
+package com.tickets.api.artist.upstream;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+
+/**
+ * Assembles one record of a feed from the scalar values {@link JsonFeedDecoder} walks past. Values
+ * the reader does not recognise are simply not bound, which is how feeds are projected down to
+ * the fields the API serves.
+ * <p>
+ * A reader is used by one decoding at a time and is reset by {@link #begin()} for every record.
+ */
+public abstract class FeedRecordReader<T> {
+
+    /**
+     * Starts a new record.
+     */
+    protected abstract void begin();
+
+    /**
+     * Called for every scalar value inside the current record. {@code level} is 1 for the record's
+     * own fields and grows by one per nested object or array; {@code topField} is the record field
+     * the value is nested under and {@code field} the name of the value itself, null inside arrays.
+     */
+    protected abstract void value(int level, String topField, String field, JsonParser parser) throws IOException;
+
+    /**
+     * Completes the current record.
+     */
+    protected abstract T end();
+
+    protected static String text(JsonParser parser) throws IOException {
+        return parser.currentToken() == JsonToken.VALUE_NULL ? null : parser.getText();
+    }
+
+    protected static Long longValue(JsonParser parser) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.VALUE_NUMBER_INT) {
+            return parser.getLongValue();
+        }
+        if (token == JsonToken.VALUE_STRING) {
+            return Long.parseLong(parser.getText().trim());
+        }
+        return null;
+    }
+
+    protected static LocalDateTime dateTimeValue(JsonParser parser) throws IOException {
+        String text = text(parser);
+        return text == null || text.isEmpty() ? null : LocalDateTime.parse(text);
+    }
+
+}
@@ -0,0 +1,31 @@
+package com.tickets.api.artist.upstream;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Outcome of a conditional feed fetch: either the decoded records of a changed feed, or a signal
+ * that the content is the one already loaded.
+ */
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public final class FeedResponse<T> {
+
+    private final boolean modified;
+
+    private final List<T> records;
+
+    private final FeedVersion version;
+
+    public static <T> FeedResponse<T> modified(List<T> records, FeedVersion version) {
+        return new FeedResponse<>(true, records, version);
+    }
+
+    public static <T> FeedResponse<T> notModified(FeedVersion version) {
+        return new FeedResponse<>(false, List.of(), version);
+    }
+
+}
@@ -0,0 +1,24 @@
+package com.tickets.api.artist.upstream;
+
+import lombok.Value;
+
+/**
+ * Identifies the content of a feed as it was last loaded: the HTTP validators the upstream sent
+ * with it, or a hash of the body when it sent none.
+ */
+@Value
+public class FeedVersion {
+
+    public static final FeedVersion NONE = new FeedVersion(null, null, null);
+
+    String etag;
+
+    String lastModified;
+
+    String contentHash;
+
+    public boolean hasValidators() {
+        return etag != null || lastModified != null;
+    }
+
+}
@@ -0,0 +1,194 @@
+package com.tickets.api.artist.upstream;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteArrayFeeder;
+import com.tickets.api.artist.dto.Artist;
+import com.tickets.api.artist.dto.Events;
+import com.tickets.api.artist.dto.Venue;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.time.DateTimeException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.LongConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Decodes a feed body - a JSON array of records, or a single record - straight from the network
+ * buffers with Jackson's non-blocking parser. Records are assembled by a {@link FeedRecordReader}
+ * from individual tokens, so nothing is bound through databind and only the record being parsed
+ * is held in memory, whatever the size of the feed.
+ */
+public final class JsonFeedDecoder<T> {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private final Supplier<? extends FeedRecordReader<T>> readers;
+
+    public JsonFeedDecoder(Supplier<? extends FeedRecordReader<T>> readers) {
+        this.readers = readers;
+    }
+
+    public static JsonFeedDecoder<Artist> artists() {
+        return new JsonFeedDecoder<>(ArtistRecordReader::new);
+    }
+
+    public static JsonFeedDecoder<Events> events() {
+        return new JsonFeedDecoder<>(EventsRecordReader::new);
+    }
+
+    public static JsonFeedDecoder<Venue> venues() {
+        return new JsonFeedDecoder<>(VenueRecordReader::new);
+    }
+
+    public Flux<T> decode(Flux<DataBuffer> body) {
+        return decode(body, nanos -> {
+        });
+    }
+
+    /**
+     * Decodes as {@link #decode(Flux)} and, once the feed has been decoded in full, reports the time
+     * spent parsing it - excluding the time spent waiting for the network.
+     */
+    public Flux<T> decode(Flux<DataBuffer> body, LongConsumer decodeNanos) {
+        return Flux.defer(() -> {
+            Tokenizer<T> tokenizer = new Tokenizer<>(readers.get());
+            return body.concatMapIterable(tokenizer::feed)
+                    .concatWith(Flux.defer(() -> Flux.fromIterable(tokenizer.endOfInput())))
+                    .doOnComplete(() -> decodeNanos.accept(tokenizer.decodeNanos))
+                    .doOnDiscard(DataBuffer.class, DataBufferUtils::release)
+                    .doFinally(signal -> tokenizer.close());
+        });
+    }
+
+    private static final class Tokenizer<T> {
+
+        private final FeedRecordReader<T> reader;
+
+        private final JsonParser parser;
+
+        private final ByteArrayFeeder feeder;
+
+        private String[] fields = new String[8];
+
+        private int depth;
+
+        /**
+         * Depth at which records live: 2 inside a top-level array, 1 for a lone top-level object.
+         */
+        private int recordDepth;
+
+        private boolean inRecord;
+
+        private long decodeNanos;
+
+        Tokenizer(FeedRecordReader<T> reader) {
+            this.reader = reader;
+            try {
+                this.parser = JSON_FACTORY.createNonBlockingByteArrayParser();
+            } catch (IOException e) {
+                throw new IllegalStateException("could not create JSON parser", e);
+            }
+            this.feeder = (ByteArrayFeeder) parser.getNonBlockingInputFeeder();
+        }
+
+        List<T> feed(DataBuffer buffer) {
+            try {
+                byte[] bytes = new byte[buffer.readableByteCount()];
+                buffer.read(bytes);
+                feeder.feedInput(bytes, 0, bytes.length);
+                return drain();
+            } catch (IOException | IllegalArgumentException | DateTimeException e) {
+                throw new DecodingException("could not decode feed: " + e.getMessage(), e);
+            } finally {
+                DataBufferUtils.release(buffer);
+            }
+        }
+
+        List<T> endOfInput() {
+            feeder.endOfInput();
+            try {
+                List<T> records = drain();
+                if (depth != 0) {
+                    throw new DecodingException("feed ended inside an unterminated JSON value");
+                }
+                return records;
+            } catch (IOException | IllegalArgumentException | DateTimeException e) {
+                throw new DecodingException("could not decode feed: " + e.getMessage(), e);
+            }
+        }
+
+        void close() {
+            try {
+                parser.close();
+            } catch (IOException ignored) {
+                // nothing left to release
+            }
+        }
+
+        private List<T> drain() throws IOException {
+            long started = System.nanoTime();
+            try {
+                List<T> records = null;
+                JsonToken token;
+                while ((token = parser.nextToken()) != null && token != JsonToken.NOT_AVAILABLE) {
+                    T record = onToken(token);
+                    if (record != null) {
+                        if (records == null) {
+                            records = new ArrayList<>();
+                        }
+                        records.add(record);
+                    }
+                }
+                return records == null ? List.of() : records;
+            } finally {
+                decodeNanos += System.nanoTime() - started;
+            }
+        }
+
+        private T onToken(JsonToken token) throws IOException {
+            switch (token) {
+                case START_OBJECT, START_ARRAY -> {
+                    if (depth == 0) {
+                        recordDepth = token == JsonToken.START_ARRAY ? 2 : 1;
+                    }
+                    if (++depth == fields.length) {
+                        fields = Arrays.copyOf(fields, depth << 1);
+                    }
+                    fields[depth] = null;
+                    if (depth == recordDepth && token == JsonToken.START_OBJECT) {
+                        inRecord = true;
+                        reader.begin();
+                    }
+                    return null;
+                }
+                case END_OBJECT, END_ARRAY -> {
+                    if (depth-- == recordDepth && inRecord) {
+                        inRecord = false;
+                        return reader.end();
+                    }
+                    return null;
+                }
+                case FIELD_NAME -> {
+                    fields[depth] = parser.currentName();
+                    return null;
+                }
+                default -> {
+                    if (inRecord) {
+                        reader.value(depth - recordDepth + 1, fields[recordDepth], fields[depth], parser);
+                    }
+                    return null;
+                }
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,40 @@
+package com.tickets.api.artist.upstream;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+/**
+ * Latencies of the most recent calls to one upstream, for deciding when a call is unusually slow.
+ */
+final class LatencyWindow {
+
+    private final long[] samples;
+
+    private int next;
+
+    private int count;
+
+    LatencyWindow(int size) {
+        this.samples = new long[size];
+    }
+
+    synchronized void record(Duration latency) {
+        samples[next] = latency.toNanos();
+        next = (next + 1) % samples.length;
+        count = Math.min(count + 1, samples.length);
+    }
+
+    /**
+     * The given percentile of the recorded latencies, or null before anything was recorded.
+     */
+    synchronized Duration percentile(double percentile) {
+        if (count == 0) {
+            return null;
+        }
+        long[] sorted = Arrays.copyOf(samples, count);
+        Arrays.sort(sorted);
+        int rank = (int) Math.ceil(percentile * count) - 1;
+        return Duration.ofNanos(sorted[Math.max(0, Math.min(count - 1, rank))]);
+    }
+
+}
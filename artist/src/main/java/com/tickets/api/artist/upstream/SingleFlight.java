@@ -0,0 +1,97 @@
+package com.tickets.api.artist.upstream;
+
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent calls for the same key: the first caller starts the call and everyone who
+ * arrives while it is in flight subscribes to the same result instead of starting their own. The
+ * key is freed before the result is delivered, so a caller that starts after seeing a result
+ * always gets a fresh call.
+ * <p>
+ * A subscriber that cancels does not cancel the shared call for the others.
+ */
+@Slf4j
+public final class SingleFlight<K> {
+
+    private final ConcurrentMap<K, Flight> inFlight = new ConcurrentHashMap<>();
+
+    private final LongAdder flights = new LongAdder();
+
+    private final LongAdder foldedCallers = new LongAdder();
+
+    private final AtomicLong maxFoldedCallers = new AtomicLong();
+
+    @SuppressWarnings("unchecked")
+    public <V> Mono<V> execute(K key, Supplier<? extends Mono<V>> call) {
+        return Mono.defer(() -> {
+            Flight flight = inFlight.get(key);
+            if (flight == null) {
+                Flight created = new Flight(key, call);
+                flight = inFlight.putIfAbsent(key, created);
+                if (flight == null) {
+                    flight = created;
+                }
+            }
+            flight.callers.incrementAndGet();
+            return (Mono<V>) flight.result;
+        });
+    }
+
+    /**
+     * Number of calls actually started.
+     */
+    public long flights() {
+        return flights.sum();
+    }
+
+    /**
+     * Number of callers that joined a call someone else had started.
+     */
+    public long foldedCallers() {
+        return foldedCallers.sum();
+    }
+
+    /**
+     * Largest number of callers folded into a single call.
+     */
+    public long maxFoldedCallers() {
+        return maxFoldedCallers.get();
+    }
+
+    private void land(Flight flight) {
+        inFlight.remove(flight.key, flight);
+        int folded = flight.callers.get() - 1;
+        flights.increment();
+        foldedCallers.add(folded);
+        maxFoldedCallers.accumulateAndGet(folded, Math::max);
+        log.debug("call for {} completed, {} callers folded into it", flight.key, folded);
+    }
+
+    private final class Flight {
+
+        private final K key;
+
+        private final AtomicInteger callers = new AtomicInteger();
+
+        private final Mono<?> result;
+
+        Flight(K key, Supplier<? extends Mono<?>> call) {
+            this.key = key;
+            this.result = Mono.defer(call)
+                    .doOnSuccess(value -> land(this))
+                    .doOnError(error -> land(this))
+                    .doOnCancel(() -> land(this))
+                    .cache();
+        }
+
+    }
+
+}
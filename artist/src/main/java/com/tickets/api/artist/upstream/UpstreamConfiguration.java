@@ -0,0 +1,69 @@
+package com.tickets.api.artist.upstream;
+
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+/**
+ * The HTTP client used for the upstream feeds, kept apart from any other {@link WebClient} so that
+ * its connection pool, timeouts and codec limits are tuned for a handful of large downloads from
+ * one host.
+ */
+@Configuration
+@EnableConfigurationProperties(UpstreamProperties.class)
+public class UpstreamConfiguration {
+
+    static final String POOL_NAME = "upstream";
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider upstreamConnectionProvider(UpstreamProperties properties) {
+        return connectionProvider(properties.getClient());
+    }
+
+    @Bean
+    public WebClient upstreamWebClient(@Value("${url.base}") String baseURL, ConnectionProvider upstreamConnectionProvider,
+                                       UpstreamProperties properties) {
+        return webClient(baseURL, upstreamConnectionProvider, properties.getClient());
+    }
+
+    /**
+     * Pooled connections to the upstream, reported under the {@code reactor.netty.connection.provider}
+     * metrics with {@code name=upstream}.
+     */
+    public static ConnectionProvider connectionProvider(UpstreamProperties.Client client) {
+        return ConnectionProvider.builder(POOL_NAME)
+                .maxConnections(client.getMaxConnections())
+                .pendingAcquireMaxCount(client.getPendingAcquireMaxCount())
+                .pendingAcquireTimeout(client.getPendingAcquireTimeout())
+                .maxIdleTime(client.getMaxIdleTime())
+                .maxLifeTime(client.getMaxLifeTime())
+                .evictInBackground(client.getEvictInBackground())
+                .metrics(true)
+                .build();
+    }
+
+    /**
+     * With compression on, {@code Accept-Encoding: gzip} is sent and compressed bodies are inflated
+     * before they reach the feed decoder. The read timeout bounds each wait for response bytes,
+     * not the whole download; that is the per-feed {@link UpstreamProperties.Leg#getTimeout()}.
+     */
+    public static WebClient webClient(String baseURL, ConnectionProvider connectionProvider, UpstreamProperties.Client client) {
+        HttpClient httpClient = HttpClient.create(connectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, Math.toIntExact(client.getConnectTimeout().toMillis()))
+                .responseTimeout(client.getReadTimeout())
+                .keepAlive(client.isKeepAlive())
+                .compress(client.isCompress());
+        return WebClient.builder()
+                .baseUrl(baseURL)
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .codecs(codecs -> codecs.defaultCodecs().maxInMemorySize(Math.toIntExact(client.getMaxInMemorySize().toBytes())))
+                .build();
+    }
+
+}
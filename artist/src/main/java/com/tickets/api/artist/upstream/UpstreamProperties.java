@@ -0,0 +1,112 @@
+package com.tickets.api.artist.upstream;
+
+import com.tickets.api.artist.limit.LimitSettings;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * Settings for the calls made to the upstream feeds, bound from {@code upstream.*}.
+ */
+@Data
+@ConfigurationProperties("upstream")
+public class UpstreamProperties {
+
+    private Leg artist = new Leg();
+
+    private Leg events = new Leg();
+
+    private Leg venues = new Leg();
+
+    private Hedge hedge = new Hedge();
+
+    private Client client = new Client();
+
+    /**
+     * Concurrency limit on downloads, hedged ones included. A minimum of one download per feed
+     * lets every refresh through, so a slow upstream sheds the hedged downloads first.
+     */
+    private LimitSettings limit = defaultLimit();
+
+    private static LimitSettings defaultLimit() {
+        LimitSettings limit = new LimitSettings();
+        limit.setInitialLimit(6);
+        limit.setMinLimit(3);
+        limit.setMaxLimit(16);
+        limit.setLatencyThreshold(Duration.ofSeconds(30));
+        limit.setRetryAfter(Duration.ofSeconds(5));
+        return limit;
+    }
+
+    @Data
+    public static class Leg {
+
+        /**
+         * Time allowed for downloading and decoding the whole feed.
+         */
+        private Duration timeout = Duration.ofSeconds(60);
+
+    }
+
+    /**
+     * A hedged fetch starts a second, identical download when the first has not produced a result
+     * after the configured percentile of recent fetch latencies; whichever finishes first wins.
+     */
+    @Data
+    public static class Hedge {
+
+        private boolean enabled;
+
+        private double percentile = 0.95;
+
+        private Duration minDelay = Duration.ofSeconds(1);
+
+    }
+
+    /**
+     * Connection pool and transport settings of the upstream HTTP client. Connections are kept
+     * alive and pooled between refreshes, so a refresh normally skips the TCP and TLS handshakes.
+     */
+    @Data
+    public static class Client {
+
+        private int maxConnections = 16;
+
+        /**
+         * Fetches allowed to wait for a pooled connection once all of them are in use.
+         */
+        private int pendingAcquireMaxCount = 64;
+
+        private Duration pendingAcquireTimeout = Duration.ofSeconds(10);
+
+        /**
+         * Pooled connections idle for longer are closed, ahead of the upstream closing them.
+         */
+        private Duration maxIdleTime = Duration.ofSeconds(30);
+
+        private Duration maxLifeTime = Duration.ofMinutes(10);
+
+        /**
+         * Interval of the background sweep for idle and expired connections; zero disables it.
+         */
+        private Duration evictInBackground = Duration.ofSeconds(30);
+
+        private Duration connectTimeout = Duration.ofSeconds(5);
+
+        private Duration readTimeout = Duration.ofSeconds(30);
+
+        private boolean keepAlive = true;
+
+        private boolean compress = true;
+
+        /**
+         * Limit for bodies the codecs buffer whole, such as error responses. Feed bodies are
+         * streamed through the feed decoder and are not subject to it.
+         */
+        private DataSize maxInMemorySize = DataSize.ofMegabytes(1);
+
+    }
+
+}
@@ -0,0 +1,41 @@
+package com.tickets.api.artist.upstream;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.tickets.api.artist.dto.Venue;
+
+import java.io.IOException;
+
+/**
+ * Binds the venue feed fields returned by the API.
+ */
+class VenueRecordReader extends FeedRecordReader<Venue> {
+
+    private Venue venue;
+
+    @Override
+    protected void begin() {
+        venue = new Venue();
+    }
+
+    @Override
+    protected void value(int level, String topField, String field, JsonParser parser) throws IOException {
+        if (level != 1) {
+            return;
+        }
+        switch (field) {
+            case "id" -> venue.setId(longValue(parser));
+            case "name" -> venue.setName(text(parser));
+            case "url" -> venue.setUrl(text(parser));
+            case "city" -> venue.setCity(text(parser));
+            default -> {
+                // not served
+            }
+        }
+    }
+
+    @Override
+    protected Venue end() {
+        return venue;
+    }
+
+}
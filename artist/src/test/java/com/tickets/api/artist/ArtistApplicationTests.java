@@ -1,11 +1,45 @@
 package com.tickets.api.artist;
 
+import com.github.tomakehurst.wiremock.WireMockServer;
+import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
 
-@SpringBootTest
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.anyUrl;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
+
+/**
+ * Loads the context against empty stub feeds and without the snapshot store, so it neither reaches
+ * the real upstream nor writes a snapshot to disk.
+ */
+@SpringBootTest(properties = "snapshot.store.enabled=false")
 class ArtistApplicationTests {
 
+	private static final WireMockServer wireMockServer = new WireMockServer(options().dynamicPort());
+
+	@DynamicPropertySource
+	static void upstream(DynamicPropertyRegistry registry) {
+		if (!wireMockServer.isRunning()) {
+			wireMockServer.start();
+			wireMockServer.stubFor(get(anyUrl())
+					.willReturn(aResponse()
+							.withStatus(200)
+							.withHeader("Content-Type", MediaType.APPLICATION_JSON_VALUE)
+							.withBody("[]")));
+		}
+		registry.add("url.base", wireMockServer::baseUrl);
+	}
+
+	@AfterAll
+	static void tearDown() {
+		wireMockServer.stop();
+	}
+
 	@Test
 	void contextLoads() {
 	}
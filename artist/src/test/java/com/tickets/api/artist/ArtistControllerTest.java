@@ -1,17 +1,35 @@
 package com.tickets.api.artist;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
 import com.tickets.api.artist.dto.Artist;
+import com.tickets.api.artist.dto.ArtistBatch;
+import com.tickets.api.artist.dto.ArtistChanges;
+import com.tickets.api.artist.dto.Events;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
-import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(SpringExtension.class)
@@ -21,33 +39,192 @@ public class ArtistControllerTest {
     @Autowired
     private WebTestClient webClient;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @MockBean
     private ArtistService artistService;
 
     @Test
-    public void testArtistById() {
+    public void testArtistById() throws JsonProcessingException {
         Artist artist = new Artist();
         artist.setId(21L);
         artist.setName("HRH Prog");
         artist.setRank(1);
         artist.setUrl("/hrh-prog-tickets/artist/21");
         artist.setImgSrc("//some-base-url/hrh-prog.jpg");
-        when(artistService.findById(21L)).thenReturn(Mono.just(artist));
+        when(artistService.findEncodedById(21L, ResponseFormat.JSON, null)).thenReturn(Mono.just(new EncodedArtist(objectMapper.writeValueAsBytes(artist), "\"1-21\"")));
         this.webClient.get()
                 .uri("/artist/21").accept(MediaType.APPLICATION_JSON)
                 .exchange()
                 .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_JSON)
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"1-21\"")
                 .expectBody(Artist.class)
                 .isEqualTo(artist);
     }
 
+    @Test
+    public void testArtistByIdWithCurrentEtagAndExpect304() {
+        when(artistService.findEncodedById(21L, ResponseFormat.JSON, null)).thenReturn(Mono.just(new EncodedArtist("{\"id\":21}".getBytes(StandardCharsets.UTF_8), "\"1-21\"")));
+        this.webClient.get()
+                .uri("/artist/21").accept(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.IF_NONE_MATCH, "\"1-21\"")
+                .exchange()
+                .expectStatus().isNotModified()
+                .expectBody().isEmpty();
+    }
+
     @Test
     public void testArtistByIdWithInvalidArtistIdAndExpect404() {
-        when(artistService.findById(1L)).thenReturn(Mono.error(new RuntimeException(HttpStatus.NOT_FOUND.toString())));
+        when(artistService.findEncodedById(1L, ResponseFormat.JSON, null)).thenReturn(Mono.error(new ArtistNotFoundException(1L)));
         this.webClient.get()
                 .uri("/artist/1").accept(MediaType.APPLICATION_JSON)
                 .exchange()
                 .expectStatus().isNotFound();
     }
 
-}
\ No newline at end of file
+    @Test
+    public void testArtistByIdAsCbor() throws IOException {
+        Artist artist = new Artist();
+        artist.setId(21L);
+        artist.setName("HRH Prog");
+        byte[] cbor = new CBORMapper().writeValueAsBytes(artist);
+        when(artistService.findEncodedById(21L, ResponseFormat.CBOR, null)).thenReturn(Mono.just(new EncodedArtist(cbor, "\"21-cb\"")));
+        this.webClient.get()
+                .uri("/artist/21").accept(MediaType.APPLICATION_CBOR, MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_CBOR)
+                .expectHeader().valueEquals(HttpHeaders.VARY, HttpHeaders.ACCEPT)
+                .expectBody(byte[].class)
+                .value(body -> assertArrayEquals(cbor, body));
+    }
+
+    @Test
+    public void testArtistByIdWithFields() {
+        when(artistService.findEncodedById(eq(21L), eq(ResponseFormat.JSON), argThat(fields -> fields != null && !fields.includesEvents())))
+                .thenReturn(Mono.just(new EncodedArtist("{\"id\":21,\"name\":\"HRH Prog\",\"rank\":1}".getBytes(StandardCharsets.UTF_8), "\"21-f\"")));
+        this.webClient.get()
+                .uri("/artist/21?fields=id,name,rank").accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class)
+                .isEqualTo("{\"id\":21,\"name\":\"HRH Prog\",\"rank\":1}");
+    }
+
+    @Test
+    public void testArtistByIdWithUnknownFieldAndExpect400() {
+        this.webClient.get()
+                .uri("/artist/21?fields=id,genre").accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    public void testArtistEventsAsNdjson() {
+        Events first = new Events();
+        first.setId(1L);
+        first.setTitle("Fusion Prog");
+        Events second = new Events();
+        second.setId(7L);
+        second.setTitle("A festival Live");
+        when(artistService.streamEventsByArtistId(21L, null, 2, null)).thenReturn(Flux.just(first, second));
+        this.webClient.get()
+                .uri("/artist/21/events?limit=2").accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_NDJSON)
+                .expectBodyList(Events.class)
+                .isEqualTo(List.of(first, second));
+    }
+
+    @Test
+    public void testArtistEventsAsServerSentEventsResumingFromLastEventId() {
+        Events event = new Events();
+        event.setId(13L);
+        event.setTitle("Huge Live");
+        when(artistService.streamEventsByArtistId(21L, 7L, null, null)).thenReturn(Flux.just(event));
+        this.webClient.get()
+                .uri("/artist/21/events").accept(MediaType.TEXT_EVENT_STREAM)
+                .header("Last-Event-ID", "7")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class)
+                .value(body -> assertTrue(body.startsWith("id:13\ndata:{\"id\":13,\"title\":\"Huge Live\"")));
+    }
+
+    @Test
+    public void testArtistEventsWithNonPositiveLimitAndExpect400() {
+        this.webClient.get()
+                .uri("/artist/21/events?limit=0").accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    public void testArtistChanges() {
+        ArtistChanges changes = new ArtistChanges();
+        changes.setVersion(2L);
+        changes.setArtistIds(List.of(22L, 25L));
+        when(artistService.changes()).thenReturn(Flux.just(changes));
+        Flux<String> body = this.webClient.get()
+                .uri("/artist/changes").accept(MediaType.TEXT_EVENT_STREAM)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(String.class)
+                .getResponseBody();
+        StepVerifier.create(body.take(1))
+                .assertNext(data -> assertTrue(data.contains("\"version\":2") && data.contains("\"artistIds\":[22,25]")))
+                .verifyComplete();
+    }
+
+    @Test
+    public void testSearchArtists() {
+        Artist artist = new Artist();
+        artist.setId(21L);
+        artist.setName("HRH Prog");
+        when(artistService.searchByName("hrh p", 5)).thenReturn(Flux.just(artist));
+        this.webClient.get()
+                .uri("/artist/search?q=hrh p&limit=5").accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(Artist.class)
+                .isEqualTo(List.of(artist));
+    }
+
+    @Test
+    public void testSearchArtistsWithTooManyResultsAndExpect400() {
+        this.webClient.get()
+                .uri("/artist/search?q=prog&limit=21").accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    public void testArtistsByIds() {
+        Artist artist = new Artist();
+        artist.setId(21L);
+        artist.setName("HRH Prog");
+        ArtistBatch batch = new ArtistBatch();
+        batch.setArtists(List.of(artist));
+        batch.setMissing(List.of(1L));
+        when(artistService.findByIds(List.of(21L, 1L))).thenReturn(Mono.just(batch));
+        this.webClient.get()
+                .uri("/artist?ids=21,1").accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(ArtistBatch.class)
+                .isEqualTo(batch);
+    }
+
+    @Test
+    public void testArtistsByIdsWithTooManyIdsAndExpect400() {
+        String ids = LongStream.rangeClosed(1, 101).mapToObj(Long::toString).collect(Collectors.joining(","));
+        this.webClient.get()
+                .uri("/artist?ids=" + ids).accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+}
@@ -4,12 +4,15 @@ import com.github.tomakehurst.wiremock.WireMockServer;
 import com.github.tomakehurst.wiremock.client.WireMock;
 import com.tickets.api.artist.dto.Artist;
 import com.tickets.api.artist.dto.Events;
-import org.junit.jupiter.api.BeforeEach;
+import com.tickets.api.artist.dto.Venue;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
-import org.springframework.context.annotation.Import;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.web.reactive.server.WebTestClient;
@@ -20,19 +23,26 @@ import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
 import static com.github.tomakehurst.wiremock.client.WireMock.get;
 import static com.github.tomakehurst.wiremock.client.WireMock.stubFor;
 import static java.util.Arrays.asList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @ExtendWith(SpringExtension.class)
-@WebFluxTest(controllers = ArtistController.class)
-@Import(ArtistService.class)
+@SpringBootTest(properties = {"url.base=http://localhost:8085", "url.artist=/artist.json", "url.events=/events.json", "url.venues=/venues.json",
+        "snapshot.store.enabled=false"})
+@AutoConfigureWebTestClient
+@AutoConfigureObservability
 public class ArtistIntegrationTest {
 
     @Autowired
     private WebTestClient webClient;
 
-    private WireMockServer wireMockServer;
+    private static WireMockServer wireMockServer;
 
-    @BeforeEach
-    void setUp() {
+    /**
+     * Started before the application context so that the startup snapshot load reaches the stubs.
+     */
+    @BeforeAll
+    static void setUp() {
         wireMockServer = new WireMockServer(8085);
         wireMockServer.start();
         WireMock.configureFor("localhost", 8085);
@@ -50,6 +60,18 @@ public class ArtistIntegrationTest {
                         .withHeader("Content-Type", MediaType.APPLICATION_JSON_VALUE)
                         .withBody(buildEvent())
                 ));
+
+        stubFor(get("/venues.json")
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", MediaType.APPLICATION_JSON_VALUE)
+                        .withBody(buildVenue())
+                ));
+    }
+
+    @AfterAll
+    static void tearDown() {
+        wireMockServer.stop();
     }
 
     @Test
@@ -61,6 +83,18 @@ public class ArtistIntegrationTest {
         artist.setUrl("/hrh-prog-tickets/artist/21");
         artist.setImgSrc("//some-base-url/hrh-prog.jpg");
 
+        Venue venue41 = new Venue();
+        venue41.setId(41L);
+        venue41.setName("O2 Academy Brixton");
+        venue41.setUrl("/o2-academy-brixton-tickets/venue/41");
+        venue41.setCity("London");
+
+        Venue venue45 = new Venue();
+        venue45.setId(45L);
+        venue45.setName("Cambridge Corn Exchange");
+        venue45.setUrl("/cambridge-corn-exchange-tickets/venue/45");
+        venue45.setCity("Cambridge");
+
         Events events1 = new Events();
         events1.setId(1L);
         events1.setTitle("Fusion Prog");
@@ -68,6 +102,7 @@ public class ArtistIntegrationTest {
         events1.setTimeZone("Europe/London");
         events1.setStartDate(LocalDateTime.of(2020, 10, 17, 00, 00));
         events1.setHiddenFromSearch(false);
+        events1.setVenue(venue41);
 
         Events events2 = new Events();
         events2.setId(7L);
@@ -76,6 +111,7 @@ public class ArtistIntegrationTest {
         events2.setTimeZone(null);
         events2.setStartDate(null);
         events2.setHiddenFromSearch(false);
+        events2.setVenue(venue45);
 
         Events events3 = new Events();
         events3.setId(13L);
@@ -84,6 +120,7 @@ public class ArtistIntegrationTest {
         events3.setTimeZone(null);
         events3.setStartDate(null);
         events3.setHiddenFromSearch(false);
+        events3.setVenue(venue41);
 
         artist.setEvents(asList(events1, events2, events3));
 
@@ -95,7 +132,7 @@ public class ArtistIntegrationTest {
                 .isEqualTo(artist);
     }
 
-    private String buildEvent() {
+    private static String buildEvent() {
         return "[{\"title\":\"Fusion Prog\",\"id\":\"1\",\"dateStatus\":\"singleDate\",\"timeZone\":\"Europe/London\",\"startDate\":\"2020-10-17T00:00:00\"," +
                 "\"artists\":[{\"id\":\"21\"},{\"id\":\"23\"},{\"id\":\"26\"}],\"venue\":{\"id\":\"41\"},\"hiddenFromSearch\":false}," +
                 "{\"title\":\"Blues In Space\",\"id\":\"2\",\"dateStatus\":\"singleDate\",\"timeZone\":\"Europe/London\",\"" +
@@ -116,7 +153,55 @@ public class ArtistIntegrationTest {
                 "\"venue\":{\"id\":\"41\"},\"hiddenFromSearch\":false}]";
     }
 
-    private String buildArtist() {
+    @Test
+    public void testEventsBetween() {
+        this.webClient.get()
+                .uri("/events?from=2020-10-16T00:00:00Z&to=2020-10-19T00:00:00Z").accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(Events.class)
+                .value(events -> assertEquals(asList(1L, 2L), events.stream().map(Events::getId).toList()));
+
+        this.webClient.get()
+                .uri("/events?from=2020-10-16T00:00:00Z&to=2020-10-19T00:00:00Z&artistId=22").accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(Events.class)
+                .value(events -> assertEquals(asList(2L), events.stream().map(Events::getId).toList()));
+    }
+
+    @Test
+    public void testMetricsEndpoint() {
+        this.webClient.get()
+                .uri("/artist/21").accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk();
+
+        this.webClient.get()
+                .uri("/actuator/prometheus")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class)
+                .value(body -> {
+                    assertTrue(body.contains("http_server_requests_seconds_bucket{"));
+                    assertTrue(body.contains("snapshot_age_seconds "));
+                    assertTrue(body.contains("snapshot_index_postings "));
+                    assertTrue(body.contains("snapshot_index_build_seconds_count "));
+                    assertTrue(body.contains("upstream_fetch_seconds_count{feed=\"artist\""));
+                    assertTrue(body.contains("cache_gets_total{cache=\"artist.responses\""));
+                    assertTrue(body.contains("reactor_netty_connection_provider_total_connections{id="));
+                    assertTrue(body.contains("limiter_limit{limiter=\"server\""));
+                    assertTrue(body.contains("application_first_response_time_seconds "));
+                    assertTrue(body.contains("limiter_rejected_total{limiter=\"upstream\""));
+                });
+    }
+
+    private static String buildVenue() {
+        return "[{\"name\":\"O2 Academy Brixton\",\"id\":\"41\",\"url\":\"/o2-academy-brixton-tickets/venue/41\",\"city\":\"London\"}," +
+                "{\"name\":\"Cambridge Corn Exchange\",\"id\":\"45\",\"url\":\"/cambridge-corn-exchange-tickets/venue/45\",\"city\":\"Cambridge\"}]";
+    }
+
+    private static String buildArtist() {
         return "[{\"name\":\"HRH Prog\",\"id\":\"21\",\"imgSrc\":\"//some-base-url/hrh-prog.jpg\",\"url\":\"/hrh-prog-tickets/artist/21\",\"rank\":1}," +
                 "{\"name\":\"Colosseum\",\"id\":\"22\",\"imgSrc\":\"//some-base-url/colosseum.jpg\",\"url\":\"/colosseum-tickets/artist/22\",\"rank\":2}," +
                 "{\"name\":\"Mostly Autumn\",\"id\":\"23\",\"imgSrc\":\"//some-base-url/mostly-autumn.jpg\",\"url\":\"/mostly-autumn-tickets/artist/23\",\"rank\":3}," +
@@ -1,8 +1,21 @@
 package com.tickets.api.artist;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.tickets.api.artist.dto.Artist;
+import com.tickets.api.artist.dto.ArtistBatch;
 import com.tickets.api.artist.dto.Events;
+import com.tickets.api.artist.snapshot.SnapshotProperties;
+import com.tickets.api.artist.snapshot.SnapshotService;
+import com.tickets.api.artist.upstream.FeedClient;
+import com.tickets.api.artist.upstream.UpstreamProperties;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import okhttp3.HttpUrl;
+import okhttp3.mockwebserver.Dispatcher;
 import okhttp3.mockwebserver.MockResponse;
 import okhttp3.mockwebserver.MockWebServer;
 import okhttp3.mockwebserver.RecordedRequest;
@@ -12,19 +25,37 @@ import org.junit.jupiter.api.Test;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.server.ResponseStatusException;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class ArtistServiceTest {
 
+    private static final String ARTIST = "{\"id\":21,\"name\":\"HRH Prog\",\"imgSrc\":\"//some-base-url/hrh-prog.jpg\",\"url\":\"/hrh-prog-tickets/artist/21\",\"rank\":1}";
+
+    private static final String VENUES = "[{\"id\":41,\"name\":\"O2 Academy Brixton\",\"city\":\"London\"}]";
+
     private MockWebServer mockWebServer;
 
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private SnapshotService snapshotService;
+
     private ArtistService artistService;
 
     @BeforeEach
@@ -32,7 +63,10 @@ class ArtistServiceTest {
         mockWebServer = new MockWebServer();
         HttpUrl url = mockWebServer.url("/api");
         mockWebServer.start();
-        artistService = new ArtistService(url.url().toString(), "/artist.json", "/events.json");
+        FeedClient feedClient = new FeedClient(WebClient.create(url.url().toString()), "/artist.json", "/events.json", "/venues.json", new UpstreamProperties(), meterRegistry);
+        snapshotService = new SnapshotService(feedClient, new SnapshotProperties(), meterRegistry);
+        ArtistResponseCache responseCache = new ArtistResponseCache(new ObjectMapper().registerModule(new JavaTimeModule()), DataSize.ofMegabytes(1), meterRegistry);
+        artistService = new ArtistService(snapshotService, responseCache, meterRegistry);
     }
 
     @AfterEach
@@ -43,16 +77,7 @@ class ArtistServiceTest {
     @Test
     void shouldReturnArtistWhenFindByIdIsCalled() throws InterruptedException {
         // Given
-        mockWebServer.enqueue(
-                new MockResponse().setResponseCode(200)
-                        .setHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
-                        .setBody("{\"id\":21,\"name\":\"HRH Prog\",\"imgSrc\":\"//some-base-url/hrh-prog.jpg\",\"url\":\"/hrh-prog-tickets/artist/21\",\"rank\":1}")
-        );
-        mockWebServer.enqueue(
-                new MockResponse().setResponseCode(200)
-                        .setHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
-                        .setBody(buildEvent())
-        );
+        serveFeeds(ARTIST, buildEvent());
 
         // When
         Mono<Artist> artistMono = artistService.findById(21L);
@@ -65,78 +90,142 @@ class ArtistServiceTest {
                         && artist.getEvents().stream().anyMatch(events -> events.getId().equals(1L)))
                 .verifyComplete();
 
-        RecordedRequest recordedRequest = mockWebServer.takeRequest();
-        assertEquals("GET", recordedRequest.getMethod());
-        assertEquals("/api/artist.json", recordedRequest.getPath());
-
-        recordedRequest = mockWebServer.takeRequest();
-        assertEquals("GET", recordedRequest.getMethod());
-        assertEquals("/api/events.json", recordedRequest.getPath());
+        assertFeedsRequested();
     }
 
     @Test
     void shouldThrowExceptionWhenArtistIsNotFound() throws InterruptedException {
         // Given
-        mockWebServer.enqueue(
-                new MockResponse().setResponseCode(200)
-                        .setHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
-                        .setBody("{\"id\":21,\"name\":\"HRH Prog\",\"imgSrc\":\"//some-base-url/hrh-prog.jpg\",\"url\":\"/hrh-prog-tickets/artist/21\",\"rank\":1}")
-        );
-        mockWebServer.enqueue(
-                new MockResponse().setResponseCode(200)
-                        .setHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
-                        .setBody(buildEvent())
-        );
+        serveFeeds(ARTIST, buildEvent());
 
         // When
         Mono<Artist> artistMono = artistService.findById(200L);
 
         // Then
         StepVerifier.create(artistMono)
-                .expectErrorMatches(error -> error instanceof RuntimeException && error.getMessage().equals(HttpStatus.NOT_FOUND.toString()))
+                .expectErrorMatches(error -> error instanceof ArtistNotFoundException
+                        && ((ArtistNotFoundException) error).getStatusCode() == HttpStatus.NOT_FOUND
+                        && error.getStackTrace().length == 0)
                 .verify();
 
-        RecordedRequest recordedRequest = mockWebServer.takeRequest();
-        assertEquals("GET", recordedRequest.getMethod());
-        assertEquals("/api/artist.json", recordedRequest.getPath());
+        assertFeedsRequested();
+    }
 
-        recordedRequest = mockWebServer.takeRequest();
-        assertEquals("GET", recordedRequest.getMethod());
-        assertEquals("/api/events.json", recordedRequest.getPath());
+    @Test
+    void shouldServeRepeatedLookupsFromLoadedSnapshot() throws InterruptedException {
+        // Given
+        serveFeeds(ARTIST, buildEvent());
+
+        // When
+        StepVerifier.create(artistService.findById(21L)).expectNextCount(1).verifyComplete();
+        StepVerifier.create(artistService.findById(21L)).expectNextCount(1).verifyComplete();
+        StepVerifier.create(artistService.findEventsByArtistId(21L)).expectNextCount(3).verifyComplete();
+
+        // Then
+        assertFeedsRequested();
+        assertEquals(3, mockWebServer.getRequestCount());
+    }
+
+    @Test
+    void shouldServeEncodedArtistFromCacheUntilSnapshotChanges() {
+        // Given
+        serveFeeds(ARTIST, buildEvent());
+        EncodedArtist first = artistService.findEncodedById(21L).block();
+        EncodedArtist cached = artistService.findEncodedById(21L).block();
+        serveFeeds(ARTIST.replace("HRH Prog", "HRH Prog Festival"), buildEvent());
+        snapshotService.refresh().block();
+
+        // When
+        EncodedArtist refreshed = artistService.findEncodedById(21L).block();
+
+        // Then
+        assertSame(first, cached);
+        assertTrue(new String(first.getBody(), StandardCharsets.UTF_8).contains("\"name\":\"HRH Prog\""));
+        assertTrue(new String(refreshed.getBody(), StandardCharsets.UTF_8).contains("\"name\":\"HRH Prog Festival\""));
+        assertNotEquals(first.getEtag(), refreshed.getEtag());
+    }
+
+    @Test
+    void shouldKeepCachedArtistWhenRefreshChangesAnotherArtist() {
+        // Given
+        String colosseum = "{\"id\":22,\"name\":\"Colosseum\",\"rank\":2}";
+        serveFeeds("[" + ARTIST + "," + colosseum + "]", buildEvent());
+        EncodedArtist first = artistService.findEncodedById(21L).block();
+        EncodedArtist other = artistService.findEncodedById(22L).block();
+        serveFeeds("[" + ARTIST + "," + colosseum.replace("Colosseum", "Colosseum II") + "]", buildEvent());
+        snapshotService.refresh().block();
+
+        // When
+        EncodedArtist cached = artistService.findEncodedById(21L).block();
+        EncodedArtist refreshed = artistService.findEncodedById(22L).block();
+
+        // Then
+        assertSame(first, cached);
+        assertNotSame(other, refreshed);
+        assertNotEquals(other.getEtag(), refreshed.getEtag());
+    }
+
+    @Test
+    void shouldCacheEachFormatAndEncodeProjectionsWithoutEvents() throws IOException {
+        // Given
+        serveFeeds(ARTIST, buildEvent());
+        EncodedArtist json = artistService.findEncodedById(21L).block();
+
+        // When
+        EncodedArtist cbor = artistService.findEncodedById(21L, ResponseFormat.CBOR, null).block();
+        EncodedArtist cachedCbor = artistService.findEncodedById(21L, ResponseFormat.CBOR, null).block();
+        EncodedArtist projected = artistService.findEncodedById(21L, ResponseFormat.SMILE, ArtistFields.parse("rank,id,name")).block();
+
+        // Then
+        assertSame(cbor, cachedCbor);
+        assertSame(json, artistService.findEncodedById(21L).block());
+        assertNotEquals(json.getEtag(), cbor.getEtag());
+        assertTrue(cbor.getBody().length < json.getBody().length);
+        assertEquals(new ObjectMapper().readTree(json.getBody()), new CBORMapper().readTree(cbor.getBody()));
+        assertEquals("{\"id\":21,\"name\":\"HRH Prog\",\"rank\":1}", new SmileMapper().readTree(projected.getBody()).toString());
+        DistributionSummary scanned = meterRegistry.get("artist.lookup.records").tag("lookup", "encoded_by_id").summary();
+        assertEquals(4 + 4 + 1 + 1 + 1, scanned.totalAmount());
+    }
+
+    @Test
+    void shouldRecordCacheHitsAndRecordsScannedPerLookup() {
+        // Given
+        serveFeeds(ARTIST, buildEvent());
+
+        // When
+        artistService.findEncodedById(21L).block();
+        artistService.findEncodedById(21L).block();
+
+        // Then
+        assertEquals(1, meterRegistry.get("cache.gets").tag("cache", "artist.responses").tag("result", "hit").functionCounter().count());
+        assertEquals(1, meterRegistry.get("cache.gets").tag("cache", "artist.responses").tag("result", "miss").functionCounter().count());
+        DistributionSummary scanned = meterRegistry.get("artist.lookup.records").tag("lookup", "encoded_by_id").summary();
+        assertEquals(2, scanned.count());
+        assertEquals(4 + 1, scanned.totalAmount());
     }
 
     @Test
     void shouldReturnEventForArtistsWhenFindEventsByArtistIdIsCalled() throws InterruptedException {
         // Given
-        mockWebServer.enqueue(
-                new MockResponse().setResponseCode(200)
-                        .setHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
-                        .setBody(buildEvent())
-        );
+        serveFeeds(ARTIST, buildEvent());
 
         // When
         Flux<Events> eventsByArtistId = artistService.findEventsByArtistId(21L);
 
         // Then
         StepVerifier.create(eventsByArtistId)
-                .expectNextMatches(events -> events.getId().equals(1L))
+                .expectNextMatches(events -> events.getId().equals(1L) && events.getArtists() == null)
                 .expectNextMatches(events -> events.getId().equals(7L))
                 .expectNextMatches(events -> events.getId().equals(13L))
                 .verifyComplete();
 
-        RecordedRequest recordedRequest = mockWebServer.takeRequest();
-        assertEquals("GET", recordedRequest.getMethod());
-        assertEquals("/api/events.json", recordedRequest.getPath());
+        assertFeedsRequested();
     }
 
     @Test
     void shouldReturnEmptyEventWhenFindEventsByArtistIdIsCalledWithUnmatchedArtistId() throws InterruptedException {
         // Given
-        mockWebServer.enqueue(
-                new MockResponse().setResponseCode(200)
-                        .setHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
-                        .setBody(buildEvent())
-        );
+        serveFeeds(ARTIST, buildEvent());
 
         // When
         Flux<Events> eventsByArtistId = artistService.findEventsByArtistId(200L);
@@ -146,9 +235,97 @@ class ArtistServiceTest {
                 .expectNextCount(0)
                 .verifyComplete();
 
-        RecordedRequest recordedRequest = mockWebServer.takeRequest();
-        assertEquals("GET", recordedRequest.getMethod());
-        assertEquals("/api/events.json", recordedRequest.getPath());
+        assertFeedsRequested();
+    }
+
+    @Test
+    void shouldStreamPagesOfEventsFromCursor() throws InterruptedException {
+        // Given
+        serveFeeds(ARTIST, buildEvent());
+
+        // When
+        Flux<Events> firstPage = artistService.streamEventsByArtistId(21L, null, 2, null);
+        Flux<Events> nextPage = artistService.streamEventsByArtistId(21L, 7L, 2, null);
+
+        // Then
+        StepVerifier.create(firstPage)
+                .expectNextMatches(events -> events.getId().equals(1L))
+                .expectNextMatches(events -> events.getId().equals(7L))
+                .verifyComplete();
+        StepVerifier.create(nextPage)
+                .expectNextMatches(events -> events.getId().equals(13L))
+                .verifyComplete();
+        StepVerifier.create(artistService.streamEventsByArtistId(21L, null, null, true))
+                .verifyComplete();
+
+        assertFeedsRequested();
+    }
+
+    @Test
+    void shouldRejectEventStreamForUnknownArtistOrCursor() {
+        // Given
+        serveFeeds(ARTIST, buildEvent());
+
+        // Then
+        StepVerifier.create(artistService.streamEventsByArtistId(200L, null, null, null))
+                .expectError(ArtistNotFoundException.class)
+                .verify();
+        StepVerifier.create(artistService.streamEventsByArtistId(21L, 3L, null, null))
+                .expectErrorMatches(error -> error instanceof ResponseStatusException
+                        && ((ResponseStatusException) error).getStatusCode() == HttpStatus.BAD_REQUEST)
+                .verify();
+    }
+
+    @Test
+    void shouldResolveBatchOfIdsReportingMissingOnes() throws InterruptedException {
+        // Given
+        serveFeeds(ARTIST, buildEvent());
+
+        // When
+        Mono<ArtistBatch> batch = artistService.findByIds(List.of(200L, 21L, 21L));
+
+        // Then
+        StepVerifier.create(batch)
+                .expectNextMatches(result -> result.getArtists().size() == 1
+                        && result.getArtists().get(0).getId().equals(21L)
+                        && result.getArtists().get(0).getEvents().size() == 3
+                        && result.getMissing().equals(List.of(200L)))
+                .verifyComplete();
+
+        assertFeedsRequested();
+    }
+
+    private void serveFeeds(String artists, String events) {
+        mockWebServer.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                String body = switch (request.getPath()) {
+                    case "/api/artist.json" -> artists;
+                    case "/api/events.json" -> events;
+                    case "/api/venues.json" -> VENUES;
+                    default -> null;
+                };
+                if (body == null) {
+                    return new MockResponse().setResponseCode(404);
+                }
+                return new MockResponse().setResponseCode(200)
+                        .setHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .setBody(body);
+            }
+        });
+    }
+
+    /**
+     * All feeds are downloaded concurrently while the snapshot loads, so arrival order is not fixed.
+     */
+    private void assertFeedsRequested() throws InterruptedException {
+        Set<String> paths = new HashSet<>();
+        for (int i = 0; i < 3; i++) {
+            RecordedRequest recordedRequest = mockWebServer.takeRequest();
+            assertEquals("GET", recordedRequest.getMethod());
+            paths.add(recordedRequest.getPath());
+        }
+        assertEquals(Set.of("/api/artist.json", "/api/events.json", "/api/venues.json"), paths);
     }
 
     private String buildEvent() {
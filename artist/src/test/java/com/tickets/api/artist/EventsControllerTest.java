@@ -0,0 +1,69 @@
+package com.tickets.api.artist;
+
+import com.tickets.api.artist.dto.Events;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(SpringExtension.class)
+@WebFluxTest(EventsController.class)
+public class EventsControllerTest {
+
+    @Autowired
+    private WebTestClient webClient;
+
+    @MockBean
+    private EventsService eventsService;
+
+    @Test
+    public void testEventsBetween() {
+        Events events = new Events();
+        events.setId(2L);
+        events.setTitle("Blues In Space");
+        Instant from = Instant.parse("2020-10-17T00:00:00Z");
+        Instant to = Instant.parse("2020-10-19T00:00:00Z");
+        when(eventsService.findEventsBetween(from, to, 22L, null, null)).thenReturn(Flux.just(events));
+        this.webClient.get()
+                .uri("/events?from=2020-10-17T00:00:00Z&to=2020-10-19T00:00:00Z&artistId=22").accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(Events.class)
+                .isEqualTo(List.of(events));
+    }
+
+    @Test
+    public void testEventsBetweenDefaultsToConfiguredWindow() {
+        Instant from = Instant.parse("2020-10-17T00:00:00Z");
+        when(eventsService.findEventsBetween(eq(from), eq(from.plus(Duration.ofDays(30))), isNull(), isNull(), any())).thenReturn(Flux.empty());
+        this.webClient.get()
+                .uri("/events?from=2020-10-17T00:00:00Z&limit=10").accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(Events.class)
+                .hasSize(0);
+    }
+
+    @Test
+    public void testEventsBetweenWithReversedRangeAndExpect400() {
+        this.webClient.get()
+                .uri("/events?from=2020-10-19T00:00:00Z&to=2020-10-17T00:00:00Z").accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+}
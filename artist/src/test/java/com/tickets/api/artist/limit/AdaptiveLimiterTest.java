@@ -0,0 +1,120 @@
+package com.tickets.api.artist.limit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class AdaptiveLimiterTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void shouldRejectCallsBeyondTheLimitAndGrowWhileBusyAndFast() {
+        // Given
+        AdaptiveLimiter limiter = new AdaptiveLimiter("test", settings(4), meterRegistry);
+        List<AdaptiveLimiter.Permit> permits = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            permits.add(limiter.tryAcquire());
+        }
+
+        // When
+        AdaptiveLimiter.Permit rejected = limiter.tryAcquire();
+        permits.forEach(AdaptiveLimiter.Permit::completed);
+
+        // Then
+        assertNull(rejected);
+        assertEquals(1, limiter.rejected());
+        assertEquals(0, limiter.inFlight());
+        assertEquals(6, limiter.limit());
+        assertEquals(6, meterRegistry.get("limiter.limit").tag("limiter", "test").gauge().value());
+        assertEquals(1, meterRegistry.get("limiter.rejected").tag("limiter", "test").counter().count());
+    }
+
+    @Test
+    void shouldBackOffOnDroppedAndSlowCallsDownToTheMinimum() {
+        // Given
+        LimitSettings settings = settings(10);
+        settings.setMinLimit(8);
+        settings.setLatencyThreshold(Duration.ZERO);
+        AdaptiveLimiter limiter = new AdaptiveLimiter("test", settings, meterRegistry);
+
+        // When
+        limiter.tryAcquire().dropped();
+        int afterDrop = limiter.limit();
+        limiter.tryAcquire().completed();
+        limiter.tryAcquire().completed();
+
+        // Then
+        assertEquals(9, afterDrop);
+        assertEquals(8, limiter.limit());
+    }
+
+    @Test
+    void shouldReleaseEachPermitOnceAndLeaveLimitAloneOnQuickCancel() {
+        // Given
+        AdaptiveLimiter limiter = new AdaptiveLimiter("test", settings(2), meterRegistry);
+        AdaptiveLimiter.Permit permit = limiter.tryAcquire();
+
+        // When
+        permit.cancelled();
+        permit.dropped();
+
+        // Then
+        assertEquals(0, limiter.inFlight());
+        assertEquals(2, limiter.limit());
+    }
+
+    @Test
+    void shouldFailCallsOverTheLimitWithoutSubscribing() {
+        // Given
+        LimitSettings settings = settings(1);
+        settings.setRetryAfter(Duration.ofSeconds(5));
+        AdaptiveLimiter limiter = new AdaptiveLimiter("test", settings, meterRegistry);
+        Sinks.One<String> upstream = Sinks.one();
+        List<String> results = new ArrayList<>();
+        limiter.limit(upstream.asMono()).subscribe(results::add);
+        boolean[] subscribed = new boolean[1];
+
+        // When
+        Mono<String> rejected = limiter.limit(Mono.fromCallable(() -> {
+            subscribed[0] = true;
+            return "second";
+        }));
+
+        // Then
+        StepVerifier.create(rejected)
+                .expectErrorSatisfies(error -> {
+                    LimitExceededException exceeded = (LimitExceededException) error;
+                    assertEquals(503, exceeded.getStatusCode().value());
+                    assertEquals("5", exceeded.getHeaders().getFirst("Retry-After"));
+                })
+                .verify();
+        assertFalse(subscribed[0]);
+        upstream.tryEmitValue("first");
+        assertEquals(List.of("first"), results);
+        assertEquals(0, limiter.inFlight());
+        assertNotNull(limiter.tryAcquire());
+    }
+
+    private static LimitSettings settings(int limit) {
+        LimitSettings settings = new LimitSettings();
+        settings.setInitialLimit(limit);
+        settings.setMinLimit(1);
+        settings.setMaxLimit(100);
+        settings.setLatencyThreshold(Duration.ofMinutes(1));
+        return settings;
+    }
+
+}
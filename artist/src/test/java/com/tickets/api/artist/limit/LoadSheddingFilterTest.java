@@ -0,0 +1,135 @@
+package com.tickets.api.artist.limit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class LoadSheddingFilterTest {
+
+    private final AdaptiveLimiter limiter = new AdaptiveLimiter("server", settings(), new SimpleMeterRegistry());
+
+    private final LoadSheddingFilter filter = new LoadSheddingFilter(limiter, Duration.ofMillis(1500), "/artist/changes");
+
+    @Test
+    void shouldShedRequestsOverTheLimitWithRetryAfter() {
+        // Given
+        Sinks.Empty<Void> slow = Sinks.empty();
+        filter.filter(exchange("/artist/21", MediaType.APPLICATION_JSON), served -> slow.asMono()).subscribe();
+        MockServerWebExchange shed = exchange("/artist/22", MediaType.APPLICATION_JSON);
+
+        // When
+        filter.filter(shed, served -> Mono.error(new AssertionError("request over the limit was served"))).block();
+
+        // Then
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, shed.getResponse().getStatusCode());
+        assertEquals("2", shed.getResponse().getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        assertEquals(1, limiter.rejected());
+        slow.tryEmitEmpty();
+        assertEquals(0, limiter.inFlight());
+    }
+
+    @Test
+    void shouldNotLimitActuatorOrTheChangesStream() {
+        // Given
+        Sinks.Empty<Void> slow = Sinks.empty();
+        filter.filter(exchange("/artist/21", MediaType.APPLICATION_JSON), served -> slow.asMono()).subscribe();
+        MockServerWebExchange actuator = exchange("/actuator/prometheus", MediaType.TEXT_PLAIN);
+        MockServerWebExchange stream = exchange("/artist/changes", MediaType.TEXT_EVENT_STREAM);
+
+        // When
+        filter.filter(actuator, served -> Mono.empty()).block();
+        filter.filter(stream, served -> Mono.empty()).block();
+
+        // Then
+        assertNull(actuator.getResponse().getStatusCode());
+        assertNull(stream.getResponse().getStatusCode());
+        assertEquals(0, limiter.rejected());
+    }
+
+    @Test
+    void shouldShedStreamingRequestsToOtherEndpoints() {
+        // Given
+        Sinks.Empty<Void> slow = Sinks.empty();
+        filter.filter(exchange("/artist/21", MediaType.APPLICATION_JSON), served -> slow.asMono()).subscribe();
+        MockServerWebExchange eventStream = exchange("/artist/21", MediaType.TEXT_EVENT_STREAM);
+        MockServerWebExchange page = exchange("/artist/21/events", MediaType.APPLICATION_NDJSON);
+
+        // When
+        filter.filter(eventStream, served -> Mono.error(new AssertionError("request over the limit was served"))).block();
+        filter.filter(page, served -> Mono.error(new AssertionError("request over the limit was served"))).block();
+
+        // Then
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, eventStream.getResponse().getStatusCode());
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, page.getResponse().getStatusCode());
+        assertEquals(2, limiter.rejected());
+    }
+
+    @Test
+    void shouldCountClientErrorsAsCompletedAndServerErrorsAsDropped() {
+        // When
+        filter.filter(exchange("/artist/100", MediaType.APPLICATION_JSON),
+                served -> Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND))).onErrorComplete().block();
+        int afterNotFound = limiter.limit();
+        filter.filter(exchange("/artist/21", MediaType.APPLICATION_JSON),
+                served -> Mono.error(new IllegalStateException("feeds unavailable"))).onErrorComplete().block();
+
+        // Then
+        assertEquals(2, afterNotFound);
+        assertEquals(1, limiter.limit());
+        assertEquals(0, limiter.inFlight());
+    }
+
+    @Test
+    void shouldTakeLatencyOfStreamedResponsesWhenCommitted() {
+        // Given
+        AdaptiveLimiter limiter = new AdaptiveLimiter("server", settings(Duration.ofMillis(250)), new SimpleMeterRegistry());
+        LoadSheddingFilter filter = new LoadSheddingFilter(limiter, Duration.ofMillis(1500), "/artist/changes");
+        MockServerWebExchange slowReader = exchange("/artist/21/events", MediaType.APPLICATION_NDJSON);
+
+        // When
+        filter.filter(slowReader, served -> served.getResponse().writeWith(Flux.range(0, 3)
+                        .concatMap(line -> line == 0 ? Mono.just(line) : Mono.fromCallable(() -> {
+                            Thread.sleep(200);
+                            return line;
+                        }))
+                        .map(line -> served.getResponse().bufferFactory().wrap("{}\n".getBytes(StandardCharsets.UTF_8)))))
+                .block();
+
+        // Then
+        assertEquals(2, limiter.limit());
+        assertEquals(0, limiter.inFlight());
+    }
+
+    private static MockServerWebExchange exchange(String path, MediaType accept) {
+        return MockServerWebExchange.from(MockServerHttpRequest.get(path).accept(accept));
+    }
+
+    private static LimitSettings settings() {
+        return settings(new LimitSettings().getLatencyThreshold());
+    }
+
+    private static LimitSettings settings(Duration latencyThreshold) {
+        LimitSettings settings = new LimitSettings();
+        settings.setLatencyThreshold(latencyThreshold);
+        settings.setInitialLimit(1);
+        settings.setMinLimit(1);
+        settings.setMaxLimit(10);
+        settings.setBackoffRatio(0.5);
+        return settings;
+    }
+
+}
@@ -0,0 +1,73 @@
+package com.tickets.api.artist.snapshot;
+
+import com.tickets.api.artist.dto.Artist;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ArtistNameIndexTest {
+
+    private static final ArtistNameIndex INDEX = ArtistNameIndex.build(List.of(
+            artist(21L, "HRH Prog", 3),
+            artist(22L, "Colosseum", 1),
+            artist(23L, "Prog Rock Festival", 2),
+            artist(24L, "Beyoncé", 5),
+            artist(25L, "Prog-Prognosis", 4),
+            artist(26L, null, 6)));
+
+    @Test
+    void shouldMatchFromStartOfAnyWordInRankOrder() {
+        // Then
+        assertEquals(List.of(23L, 21L, 25L), ids(INDEX.search("prog", 10)));
+        assertEquals(List.of(23L, 21L, 25L), ids(INDEX.search("Pr", 10)));
+        assertEquals(List.of(25L), ids(INDEX.search("progn", 10)));
+        assertEquals(List.of(21L), ids(INDEX.search("hrh  prog", 10)));
+        assertEquals(List.of(23L), ids(INDEX.search("rock fest", 10)));
+        assertTrue(INDEX.search("rog", 10).isEmpty());
+    }
+
+    @Test
+    void shouldIgnoreCaseAccentsAndPunctuation() {
+        // Then
+        assertEquals(List.of(24L), ids(INDEX.search("BEYONCE", 10)));
+        assertEquals(List.of(24L), ids(INDEX.search("beyoncé", 10)));
+        assertEquals(List.of(25L), ids(INDEX.search("prog prognosis", 10)));
+        assertTrue(INDEX.search(" - ", 10).isEmpty());
+    }
+
+    @Test
+    void shouldKeepBestRankedMatchesWithinLimit() {
+        // Given
+        List<Artist> artists = new ArrayList<>();
+        for (int rank = 1000; rank > 0; rank--) {
+            artists.add(artist((long) rank, "Tribute Band " + rank, rank));
+        }
+        ArtistNameIndex index = ArtistNameIndex.build(artists);
+
+        // Then
+        assertEquals(List.of(1L, 2L, 3L), ids(index.search("tribute band", 3)));
+        assertEquals(List.of(1L, 2L, 3L), ids(index.search("t", 3)));
+        assertEquals(List.of(10L, 100L, 101L, 102L, 103L), ids(index.search("band 10", 5)));
+        assertEquals(ArtistNameIndex.MAX_RESULTS, index.search("tri", 500).size());
+        assertEquals(LongStream.rangeClosed(1, ArtistNameIndex.MAX_RESULTS).boxed().toList(), ids(index.search("band", 500)));
+        assertEquals(3000, index.suffixCount());
+    }
+
+    private static List<Long> ids(List<Artist> artists) {
+        return artists.stream().map(Artist::getId).toList();
+    }
+
+    private static Artist artist(Long id, String name, long rank) {
+        Artist artist = new Artist();
+        artist.setId(id);
+        artist.setName(name);
+        artist.setRank(rank);
+        return artist;
+    }
+
+}
@@ -0,0 +1,182 @@
+package com.tickets.api.artist.snapshot;
+
+import com.tickets.api.artist.dto.Artist;
+import com.tickets.api.artist.dto.Events;
+import com.tickets.api.artist.dto.Venue;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EventIndexTest {
+
+    @Test
+    void shouldResolveEventsOfArtistInFeedOrder() {
+        // Given
+        EventIndex index = EventIndex.build(List.of(event(1L, 21L, 23L), event(2L, 22L), event(7L, 21L, 22L), event(13L, 21L)), VenueIndex.EMPTY);
+
+        // When
+        List<Events> events = index.eventsFor(21L);
+
+        // Then
+        assertEquals(List.of(1L, 7L, 13L), events.stream().map(Events::getId).toList());
+        assertEquals(List.of(2L, 7L), index.eventsFor(22L).stream().map(Events::getId).toList());
+        assertTrue(index.eventsFor(200L).isEmpty());
+        assertEquals(3, index.artistCount());
+        assertEquals(6, index.postingCount());
+        assertNotNull(index.buildTime());
+    }
+
+    @Test
+    void shouldListEventOnceWhenArtistAppearsTwice() {
+        // Given
+        EventIndex index = EventIndex.build(List.of(event(9L, 25L, 29L, 29L)), VenueIndex.EMPTY);
+
+        // Then
+        assertEquals(1, index.eventsFor(29L).size());
+        assertEquals(2, index.postingCount());
+    }
+
+    @Test
+    void shouldServeCopiesWithoutArtistsAndLeaveFeedRecordsUntouched() {
+        // Given
+        Events source = event(1L, 21L);
+        EventIndex index = EventIndex.build(List.of(source), VenueIndex.EMPTY);
+
+        // When
+        List<Events> events = index.eventsFor(21L);
+
+        // Then
+        assertNull(events.get(0).getArtists());
+        assertEquals("Event 1", events.get(0).getTitle());
+        assertEquals(1, source.getArtists().length);
+        assertEquals(source, index.get(1L));
+        assertThrows(UnsupportedOperationException.class, () -> events.add(new Events()));
+    }
+
+    @Test
+    void shouldSkipEventsWithoutArtists() {
+        // Given
+        Events event = event(3L);
+        event.setArtists(null);
+
+        // When
+        EventIndex index = EventIndex.build(List.of(event), VenueIndex.EMPTY);
+
+        // Then
+        assertEquals(1, index.size());
+        assertEquals(0, index.artistCount());
+    }
+
+    @Test
+    void shouldJoinVenueAndKeepIdOnlyVenueMissingFromVenueFeed() {
+        // Given
+        Events known = event(1L, 21L);
+        known.setVenue(venue(41L, null));
+        Events unknown = event(7L, 21L);
+        unknown.setVenue(venue(45L, null));
+        VenueIndex venues = VenueIndex.build(List.of(venue(41L, "O2 Academy Brixton")));
+
+        // When
+        List<Events> events = EventIndex.build(List.of(known, unknown), venues).eventsFor(21L);
+
+        // Then
+        assertEquals("O2 Academy Brixton", events.get(0).getVenue().getName());
+        assertEquals(45L, events.get(1).getVenue().getId());
+        assertNull(events.get(1).getVenue().getName());
+        assertNull(known.getVenue().getName());
+    }
+
+    @Test
+    void shouldFindEventsStartingInRangeInStartOrder() {
+        // Given
+        Events late = startingAt(event(1L, 21L), "2020-10-20T19:30", "Europe/London");
+        Events early = startingAt(event(2L, 22L), "2020-10-17T19:30", "Europe/London");
+        Events undated = event(3L, 21L);
+        Events sameInstant = startingAt(event(4L, 23L), "2020-10-17T20:30", "Europe/Paris");
+        Events unknownZone = startingAt(event(5L, 21L), "2020-10-18T12:00", "Mars/Olympus");
+        EventIndex index = EventIndex.build(List.of(late, early, undated, sameInstant, unknownZone), VenueIndex.EMPTY);
+
+        // When
+        List<Events> events = index.eventsBetween(Instant.parse("2020-10-17T18:30:00Z"), Instant.parse("2020-10-20T18:30:00Z"));
+
+        // Then
+        assertEquals(List.of(2L, 4L, 5L), events.stream().map(Events::getId).toList());
+        assertEquals(List.of(1L), index.eventsBetween(Instant.parse("2020-10-20T18:30:00Z"), Instant.MAX).stream().map(Events::getId).toList());
+        assertTrue(index.eventsBetween(Instant.parse("2020-10-21T00:00:00Z"), Instant.parse("2020-10-22T00:00:00Z")).isEmpty());
+        assertThrows(IndexOutOfBoundsException.class, () -> events.get(3));
+    }
+
+    @Test
+    void shouldFindArtistEventsStartingInRangeInStartOrder() {
+        // Given
+        Events late = startingAt(event(1L, 21L), "2020-10-20T19:30", "Europe/London");
+        Events early = startingAt(event(2L, 22L), "2020-10-17T19:30", "Europe/London");
+        Events undated = event(3L, 21L);
+        Events unknownZone = startingAt(event(4L, 21L, 22L), "2020-10-18T12:00", "Mars/Olympus");
+        EventIndex index = EventIndex.build(List.of(late, early, undated, unknownZone), VenueIndex.EMPTY);
+
+        // Then
+        Instant from = Instant.parse("2020-10-17T00:00:00Z");
+        assertEquals(List.of(4L, 1L), index.eventsBetween(21L, from, Instant.MAX).stream().map(Events::getId).toList());
+        assertEquals(List.of(4L), index.eventsBetween(21L, from, Instant.parse("2020-10-20T18:30:00Z")).stream().map(Events::getId).toList());
+        assertEquals(List.of(2L, 4L), index.eventsBetween(22L, from, Instant.MAX).stream().map(Events::getId).toList());
+        assertTrue(index.eventsBetween(99L, from, Instant.MAX).isEmpty());
+    }
+
+    @Test
+    void shouldKeepFeedOrderAmongEventsStartingTogether() {
+        // Given
+        List<Events> feed = new ArrayList<>();
+        for (long id = 1; id <= 100; id++) {
+            feed.add(startingAt(event(id, 21L), "2020-10-" + (10 + id * 7 % 5) + "T20:00", "UTC"));
+        }
+        EventIndex index = EventIndex.build(feed, VenueIndex.EMPTY);
+
+        // When
+        List<Long> ordered = feed.stream()
+                .sorted(Comparator.comparing(Events::getStartDate))
+                .map(Events::getId)
+                .toList();
+
+        // Then
+        assertEquals(ordered, index.eventsBetween(Instant.MIN, Instant.MAX).stream().map(Events::getId).toList());
+        assertEquals(ordered, index.eventsBetween(21L, Instant.MIN, Instant.MAX).stream().map(Events::getId).toList());
+    }
+
+    private static Events startingAt(Events events, String startDate, String timeZone) {
+        events.setStartDate(LocalDateTime.parse(startDate));
+        events.setTimeZone(timeZone);
+        return events;
+    }
+
+    private static Venue venue(long id, String name) {
+        Venue venue = new Venue();
+        venue.setId(id);
+        venue.setName(name);
+        return venue;
+    }
+
+    private static Events event(long id, long... artistIds) {
+        Events events = new Events();
+        events.setId(id);
+        events.setTitle("Event " + id);
+        Artist[] artists = new Artist[artistIds.length];
+        for (int i = 0; i < artistIds.length; i++) {
+            artists[i] = new Artist();
+            artists[i].setId(artistIds[i]);
+        }
+        events.setArtists(artists);
+        return events;
+    }
+
+}
@@ -0,0 +1,56 @@
+package com.tickets.api.artist.snapshot;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IdFilterTest {
+
+    @Test
+    void shouldAdmitEveryAddedId() {
+        // Given
+        IdFilter filter = new IdFilter(10_000);
+
+        // When
+        for (long id = 0; id < 10_000; id++) {
+            filter.add(id * 31 - 5_000);
+        }
+
+        // Then
+        for (long id = 0; id < 10_000; id++) {
+            assertTrue(filter.mightContain(id * 31 - 5_000));
+        }
+    }
+
+    @Test
+    void shouldTurnAwayMostUnknownIds() {
+        // Given
+        IdFilter filter = new IdFilter(10_000);
+        for (long id = 1; id <= 10_000; id++) {
+            filter.add(id);
+        }
+
+        // When
+        int admitted = 0;
+        for (long id = 10_001; id <= 110_000; id++) {
+            if (filter.mightContain(id)) {
+                admitted++;
+            }
+        }
+
+        // Then
+        assertTrue(admitted < 1_000, admitted + " of 100000 unknown ids admitted");
+    }
+
+    @Test
+    void shouldAdmitNothingWhenEmpty() {
+        // Given
+        IdFilter filter = new IdFilter(0);
+
+        // Then
+        assertFalse(filter.mightContain(21L));
+        assertFalse(filter.mightContain(0L));
+    }
+
+}
@@ -0,0 +1,78 @@
+package com.tickets.api.artist.snapshot;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LongObjectHashMapTest {
+
+    @Test
+    void shouldReturnValuesPutUnderKey() {
+        // Given
+        LongObjectHashMap<String> map = new LongObjectHashMap<>();
+
+        // When
+        map.put(21L, "HRH Prog");
+        map.put(-7L, "negative");
+        map.put(0L, "zero");
+
+        // Then
+        assertEquals("HRH Prog", map.get(21L));
+        assertEquals("negative", map.get(-7L));
+        assertEquals("zero", map.get(0L));
+        assertNull(map.get(22L));
+        assertTrue(map.containsKey(0L));
+        assertFalse(map.containsKey(1L));
+        assertEquals(3, map.size());
+    }
+
+    @Test
+    void shouldReplaceValueOfExistingKey() {
+        // Given
+        LongObjectHashMap<String> map = new LongObjectHashMap<>();
+        map.put(21L, "old");
+
+        // When
+        String previous = map.put(21L, "new");
+
+        // Then
+        assertEquals("old", previous);
+        assertEquals("new", map.get(21L));
+        assertEquals(1, map.size());
+    }
+
+    @Test
+    void shouldKeepAllEntriesWhenGrowingPastExpectedSize() {
+        // Given
+        LongObjectHashMap<Long> map = new LongObjectHashMap<>(2);
+
+        // When
+        for (long key = 0; key < 10_000; key++) {
+            map.put(key * 31, key);
+        }
+
+        // Then
+        assertEquals(10_000, map.size());
+        for (long key = 0; key < 10_000; key++) {
+            assertEquals(key, map.get(key * 31));
+        }
+        Map<Long, Long> visited = new HashMap<>();
+        map.forEach(visited::put);
+        assertEquals(10_000, visited.size());
+    }
+
+    @Test
+    void shouldRejectNullValues() {
+        LongObjectHashMap<String> map = new LongObjectHashMap<>();
+
+        assertThrows(NullPointerException.class, () -> map.put(1L, null));
+    }
+
+}
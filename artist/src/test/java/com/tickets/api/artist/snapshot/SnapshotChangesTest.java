@@ -0,0 +1,104 @@
+package com.tickets.api.artist.snapshot;
+
+import com.tickets.api.artist.dto.Artist;
+import com.tickets.api.artist.dto.Events;
+import com.tickets.api.artist.upstream.FeedVersion;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SnapshotChangesTest {
+
+    @Test
+    void shouldListAddedEditedRemovedArtistsAndArtistsWhoseEventsChanged() {
+        // Given
+        FeedSnapshot before = snapshot(1L, List.of(artist(21L, "HRH Prog"), artist(22L, "Colosseum"), artist(23L, "Tangerine Dream"),
+                artist(24L, "Camel")), List.of(event(1L, "Fusion Prog", 21L, 22L), event(2L, "Prog Live", 24L)), SnapshotChanges.everything(1L));
+        ArtistIndex artists = ArtistIndex.build(List.of(artist(21L, "HRH Prog"), artist(22L, "Colosseum"), artist(24L, "Camel Live"),
+                artist(25L, "Yes")));
+        EventIndex events = EventIndex.build(List.of(event(1L, "Fusion Prog", 21L), event(2L, "Prog Live", 24L)), VenueIndex.EMPTY);
+
+        // When
+        SnapshotChanges changes = SnapshotChanges.between(before, 2L, artists, events);
+
+        // Then
+        assertFalse(changes.isEverything());
+        assertEquals(List.of(22L, 23L, 24L, 25L), changes.getArtistIds());
+        assertTrue(changes.unchangedSince(1L, 21L));
+        assertFalse(changes.unchangedSince(1L, 22L));
+    }
+
+    @Test
+    void shouldCompareOnlyEventsWhenArtistIndexIsShared() {
+        // Given
+        ArtistIndex artists = ArtistIndex.build(List.of(artist(21L, "HRH Prog"), artist(22L, "Colosseum")));
+        FeedSnapshot before = snapshot(1L, artists, List.of(event(1L, "Fusion Prog", 21L)), SnapshotChanges.everything(1L));
+        EventIndex events = EventIndex.build(List.of(event(1L, "Fusion Prog", 21L), event(7L, "A festival Live", 22L)), VenueIndex.EMPTY);
+
+        // When
+        SnapshotChanges changes = SnapshotChanges.between(before, 2L, artists, events);
+
+        // Then
+        assertEquals(List.of(22L), changes.getArtistIds());
+    }
+
+    @Test
+    void shouldTakeEverythingAsChangedBeforeFirstLoadAndBeyondHistory() {
+        // Given
+        ArtistIndex artists = ArtistIndex.build(List.of(artist(21L, "HRH Prog"), artist(22L, "Colosseum")));
+        SnapshotChanges first = SnapshotChanges.between(FeedSnapshot.EMPTY, 1L, artists, EventIndex.EMPTY);
+        SnapshotChanges changes = first;
+        for (long version = 2; version <= SnapshotChanges.HISTORY + 2; version++) {
+            FeedSnapshot before = snapshot(version - 1, artists, List.of(), changes);
+            ArtistIndex next = ArtistIndex.build(List.of(artist(21L, "HRH Prog"), artist(22L, "Colosseum " + version)));
+            changes = SnapshotChanges.between(before, version, next, EventIndex.EMPTY);
+            artists = next;
+        }
+
+        // Then
+        assertTrue(first.isEverything());
+        assertFalse(first.unchangedSince(0L, 21L));
+        assertTrue(changes.unchangedSince(2L, 21L));
+        assertFalse(changes.unchangedSince(1L, 21L));
+        assertFalse(changes.unchangedSince(17L, 22L));
+        assertArrayEquals(new long[]{22L}, changes.artistIdsSince(10L));
+        assertNull(changes.artistIdsSince(1L));
+    }
+
+    private static FeedSnapshot snapshot(long version, List<Artist> artists, List<Events> events, SnapshotChanges changes) {
+        return snapshot(version, ArtistIndex.build(artists), events, changes);
+    }
+
+    private static FeedSnapshot snapshot(long version, ArtistIndex artists, List<Events> events, SnapshotChanges changes) {
+        return new FeedSnapshot(version, Instant.EPOCH, artists, FeedVersion.NONE, EventIndex.build(events, VenueIndex.EMPTY), FeedVersion.NONE,
+                VenueIndex.EMPTY, FeedVersion.NONE, changes);
+    }
+
+    private static Artist artist(long id, String name) {
+        Artist artist = new Artist();
+        artist.setId(id);
+        artist.setName(name);
+        return artist;
+    }
+
+    private static Events event(long id, String title, long... artistIds) {
+        Events events = new Events();
+        events.setId(id);
+        events.setTitle(title);
+        Artist[] artists = new Artist[artistIds.length];
+        for (int i = 0; i < artistIds.length; i++) {
+            artists[i] = new Artist();
+            artists[i].setId(artistIds[i]);
+        }
+        events.setArtists(artists);
+        return events;
+    }
+
+}
@@ -0,0 +1,262 @@
+package com.tickets.api.artist.snapshot;
+
+import com.tickets.api.artist.upstream.FeedClient;
+import com.tickets.api.artist.upstream.FeedVersion;
+import com.tickets.api.artist.upstream.UpstreamProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import okhttp3.HttpUrl;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SnapshotServiceTest {
+
+    private final Map<String, String> feeds = new ConcurrentHashMap<>();
+
+    private MockWebServer mockWebServer;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private FeedClient feedClient;
+
+    private SnapshotService snapshotService;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        mockWebServer = new MockWebServer();
+        HttpUrl url = mockWebServer.url("/api");
+        mockWebServer.start();
+        mockWebServer.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                String body = feeds.get(request.getPath());
+                if (body == null) {
+                    return new MockResponse().setResponseCode(500);
+                }
+                String etag = "\"" + Integer.toHexString(body.hashCode()) + "\"";
+                if (etag.equals(request.getHeader(HttpHeaders.IF_NONE_MATCH))) {
+                    return new MockResponse().setResponseCode(304);
+                }
+                return new MockResponse().setResponseCode(200)
+                        .setHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .setHeader(HttpHeaders.ETAG, etag)
+                        .setBody(body);
+            }
+        });
+        feedClient = new FeedClient(WebClient.create(url.url().toString()), "/artist.json", "/events.json", "/venues.json", new UpstreamProperties(), meterRegistry);
+        snapshotService = new SnapshotService(feedClient, new SnapshotProperties(), meterRegistry);
+        feeds.put("/api/artist.json", "[{\"id\":21,\"name\":\"HRH Prog\",\"rank\":1}]");
+        feeds.put("/api/events.json", "[{\"id\":1,\"title\":\"Fusion Prog\",\"artists\":[{\"id\":21}],\"venue\":{\"id\":41}}]");
+        feeds.put("/api/venues.json", "[{\"id\":41,\"name\":\"O2 Academy Brixton\",\"city\":\"London\"}]");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        mockWebServer.shutdown();
+    }
+
+    @Test
+    void shouldKeepSnapshotWhenNeitherFeedChanged() {
+        // Given
+        FeedSnapshot loaded = snapshotService.refresh().block();
+
+        // When
+        FeedSnapshot refreshed = snapshotService.refresh().block();
+
+        // Then
+        assertSame(loaded, refreshed);
+        assertSame(loaded, snapshotService.current());
+        assertEquals(1L, loaded.getVersion());
+    }
+
+    @Test
+    void shouldServeStoredSnapshotOnStartupAndRefreshConditionally(@TempDir Path directory) throws InterruptedException {
+        // Given
+        SnapshotProperties properties = new SnapshotProperties();
+        properties.getStore().setEnabled(true);
+        properties.getStore().setPath(directory.resolve("snapshot.bin"));
+        FeedSnapshot stored = new SnapshotService(feedClient, properties, new SimpleMeterRegistry()).refresh().block();
+        for (int i = 0; i < 3; i++) {
+            mockWebServer.takeRequest();
+        }
+
+        // When
+        SnapshotService restarted = new SnapshotService(feedClient, properties, new SimpleMeterRegistry());
+
+        // Then
+        FeedSnapshot restored = restarted.current();
+        assertTrue(restored.isLoaded());
+        assertEquals(stored.getLoadedAt(), restored.getLoadedAt());
+        assertEquals(stored.getArtistsVersion(), restored.getArtistsVersion());
+        assertEquals("HRH Prog", restored.getArtists().get(21L).getName());
+        assertEquals("O2 Academy Brixton", restored.getEvents().eventsFor(21L).get(0).getVenue().getName());
+        assertEquals(3, mockWebServer.getRequestCount());
+
+        assertSame(restored, restarted.refresh().block());
+        Set<String> validators = new HashSet<>();
+        for (int i = 0; i < 3; i++) {
+            validators.add(mockWebServer.takeRequest().getHeader(HttpHeaders.IF_NONE_MATCH));
+        }
+        assertEquals(Set.of(stored.getArtistsVersion().getEtag(), stored.getEventsVersion().getEtag(), stored.getVenuesVersion().getEtag()), validators);
+    }
+
+    @Test
+    void shouldReportSnapshotAgeAndRefreshOutcomes() {
+        // Given
+        assertTrue(Double.isNaN(meterRegistry.get("snapshot.age").timeGauge().value()));
+
+        // When
+        snapshotService.refresh().block();
+        snapshotService.refresh().block();
+
+        // Then
+        assertTrue(meterRegistry.get("snapshot.age").timeGauge().value() >= 0);
+        assertEquals(1, meterRegistry.get("snapshot.records").tag("feed", "artist").gauge().value());
+        assertEquals(1, meterRegistry.get("snapshot.index.postings").gauge().value());
+        assertEquals(1, meterRegistry.get("snapshot.index.artists").gauge().value());
+        assertEquals(1, meterRegistry.get("snapshot.index.build").timer().count());
+        assertEquals(1, meterRegistry.get("snapshot.refresh").tag("outcome", "published").timer().count());
+        assertEquals(1, meterRegistry.get("snapshot.refresh").tag("outcome", "unchanged").timer().count());
+    }
+
+    @Test
+    void shouldShareOneLoadAmongConcurrentCallers() {
+        // When
+        List<FeedSnapshot> snapshots = Flux.range(0, 20)
+                .flatMap(i -> snapshotService.snapshot())
+                .collectList()
+                .block();
+
+        // Then
+        assertEquals(20, snapshots.size());
+        snapshots.forEach(snapshot -> assertSame(snapshotService.current(), snapshot));
+        assertEquals(3, mockWebServer.getRequestCount());
+        assertEquals(1, snapshotService.refreshes().flights());
+        assertEquals(19, snapshotService.refreshes().foldedCallers());
+    }
+
+    @Test
+    void shouldRebuildOnlyTheFeedThatChanged() {
+        // Given
+        FeedSnapshot loaded = snapshotService.refresh().block();
+        feeds.put("/api/events.json", "[{\"id\":1,\"title\":\"Fusion Prog\",\"artists\":[{\"id\":21}]},{\"id\":7,\"title\":\"A festival Live\",\"artists\":[{\"id\":21}]}]");
+
+        // When
+        FeedSnapshot refreshed = snapshotService.refresh().block();
+
+        // Then
+        assertEquals(2L, refreshed.getVersion());
+        assertSame(loaded.getArtists(), refreshed.getArtists());
+        assertNotSame(loaded.getEvents(), refreshed.getEvents());
+        assertEquals(2, refreshed.getEvents().eventsFor(21L).size());
+    }
+
+    @Test
+    void shouldEmitOnlyTheArtistsWhoseResponseChanged() {
+        // Given
+        feeds.put("/api/artist.json", "[{\"id\":21,\"name\":\"HRH Prog\",\"rank\":1},{\"id\":22,\"name\":\"Colosseum\",\"rank\":2}]");
+        snapshotService.refresh().block();
+        feeds.put("/api/events.json", "[{\"id\":1,\"title\":\"Fusion Prog\",\"artists\":[{\"id\":21}],\"venue\":{\"id\":41}},{\"id\":7,\"title\":\"A festival Live\",\"artists\":[{\"id\":22}]}]");
+
+        // When
+        StepVerifier.create(snapshotService.changes().take(1))
+                .then(() -> snapshotService.refresh().block())
+
+                // Then
+                .assertNext(changes -> {
+                    assertEquals(2L, changes.getVersion());
+                    assertEquals(List.of(22L), changes.getArtistIds());
+                })
+                .verifyComplete();
+        assertTrue(snapshotService.current().getChanges().unchangedSince(1L, 21L));
+    }
+
+    @Test
+    void shouldRejoinEventsWhenOnlyVenuesChanged() {
+        // Given
+        FeedSnapshot loaded = snapshotService.refresh().block();
+        feeds.put("/api/venues.json", "[{\"id\":41,\"name\":\"Brixton Academy\",\"city\":\"London\"}]");
+
+        // When
+        FeedSnapshot refreshed = snapshotService.refresh().block();
+
+        // Then
+        assertSame(loaded.getArtists(), refreshed.getArtists());
+        assertSame(loaded.getEventsVersion(), refreshed.getEventsVersion());
+        assertEquals("O2 Academy Brixton", loaded.getEvents().eventsFor(21L).get(0).getVenue().getName());
+        assertEquals("Brixton Academy", refreshed.getEvents().eventsFor(21L).get(0).getVenue().getName());
+    }
+
+    @Test
+    void shouldPublishArtistsWhileEventsFeedIsFailing() {
+        // Given
+        feeds.remove("/api/events.json");
+
+        // When
+        FeedSnapshot snapshot = snapshotService.refresh().block();
+
+        // Then
+        assertEquals(1, snapshot.getArtists().size());
+        assertEquals(0, snapshot.getEvents().size());
+        assertEquals(FeedVersion.NONE, snapshot.getEventsVersion());
+    }
+
+    @Test
+    void shouldKeepLoadedEventsWhileEventsFeedIsFailing() {
+        // Given
+        FeedSnapshot loaded = snapshotService.refresh().block();
+        feeds.remove("/api/events.json");
+        feeds.put("/api/artist.json", "[{\"id\":21,\"name\":\"HRH Prog\",\"rank\":1},{\"id\":22,\"name\":\"Colosseum\",\"rank\":2}]");
+
+        // When
+        FeedSnapshot refreshed = snapshotService.refresh().block();
+
+        // Then
+        assertEquals(2, refreshed.getArtists().size());
+        assertSame(loaded.getEvents(), refreshed.getEvents());
+    }
+
+    @Test
+    void shouldFailRefreshWhenEventsAreRequired() {
+        // Given
+        SnapshotProperties properties = new SnapshotProperties();
+        properties.setEventsOptional(false);
+        snapshotService = new SnapshotService(feedClient, properties, new SimpleMeterRegistry());
+        feeds.remove("/api/events.json");
+
+        // When
+        Mono<FeedSnapshot> refresh = snapshotService.refresh();
+
+        // Then
+        StepVerifier.create(refresh)
+                .expectError()
+                .verify();
+        assertEquals(0L, snapshotService.current().getVersion());
+    }
+
+}
@@ -0,0 +1,125 @@
+package com.tickets.api.artist.snapshot;
+
+import com.tickets.api.artist.dto.Artist;
+import com.tickets.api.artist.dto.Events;
+import com.tickets.api.artist.dto.Venue;
+import com.tickets.api.artist.upstream.FeedVersion;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class SnapshotStoreTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void shouldRestoreRecordsAndFeedVersions() throws IOException {
+        // Given
+        SnapshotStore store = new SnapshotStore(directory.resolve("snapshot.bin"));
+        store.save(snapshot());
+
+        // When
+        FeedSnapshot restored = store.load(7L);
+
+        // Then
+        assertEquals(7L, restored.getVersion());
+        assertEquals(Instant.ofEpochMilli(1602892800000L), restored.getLoadedAt());
+        assertEquals(new FeedVersion("\"v1\"", "Sat, 17 Oct 2020 00:00:00 GMT", null), restored.getArtistsVersion());
+        assertEquals(new FeedVersion(null, null, "c0ffee"), restored.getEventsVersion());
+        assertEquals(FeedVersion.NONE, restored.getVenuesVersion());
+        assertEquals(artist(), restored.getArtists().get(21L));
+        assertEquals(event(), restored.getEvents().get(1L));
+        assertEquals(venue(), restored.getVenues().get(41L));
+
+        Events served = restored.getEvents().eventsFor(21L).get(0);
+        assertEquals(LocalDateTime.of(2020, 10, 17, 19, 30), served.getStartDate());
+        assertEquals("London", served.getVenue().getCity());
+        assertArrayEquals(new Artist[0], restored.getEvents().get(2L).getArtists());
+    }
+
+    @Test
+    void shouldIgnoreFileWithAnotherFormatVersion() throws IOException {
+        // Given
+        Path path = directory.resolve("snapshot.bin");
+        try (DataOutputStream out = new DataOutputStream(Files.newOutputStream(path))) {
+            out.writeInt(SnapshotStore.MAGIC);
+            out.writeInt(SnapshotStore.FORMAT_VERSION + 1);
+        }
+
+        // Then
+        assertNull(new SnapshotStore(path).load(1L));
+    }
+
+    @Test
+    void shouldIgnoreMissingOrTruncatedFile() throws IOException {
+        // Given
+        Path path = directory.resolve("snapshot.bin");
+        SnapshotStore store = new SnapshotStore(path);
+        assertNull(store.load(1L));
+        store.save(snapshot());
+        byte[] bytes = Files.readAllBytes(path);
+        Files.write(path, Arrays.copyOf(bytes, bytes.length / 2));
+
+        // Then
+        assertNull(store.load(1L));
+    }
+
+    private static FeedSnapshot snapshot() {
+        Events empty = new Events();
+        empty.setId(2L);
+        empty.setArtists(new Artist[0]);
+        VenueIndex venues = VenueIndex.build(List.of(venue()));
+        return new FeedSnapshot(3L, Instant.ofEpochMilli(1602892800000L),
+                ArtistIndex.build(List.of(artist())), new FeedVersion("\"v1\"", "Sat, 17 Oct 2020 00:00:00 GMT", null),
+                EventIndex.build(List.of(event(), empty), venues), new FeedVersion(null, null, "c0ffee"),
+                venues, FeedVersion.NONE, SnapshotChanges.everything(3L));
+    }
+
+    private static Artist artist() {
+        Artist artist = new Artist();
+        artist.setId(21L);
+        artist.setName("HRH Prog");
+        artist.setImgSrc("//some-base-url/hrh-prog.jpg");
+        artist.setUrl("/hrh-prog-tickets/artist/21");
+        artist.setRank(1);
+        return artist;
+    }
+
+    private static Events event() {
+        Artist artist = new Artist();
+        artist.setId(21L);
+        Venue venue = new Venue();
+        venue.setId(41L);
+        Events event = new Events();
+        event.setId(1L);
+        event.setTitle("Fusion Prog – Ünïcode");
+        event.setDateStatus("singleDate");
+        event.setStartDate(LocalDateTime.of(2020, 10, 17, 19, 30));
+        event.setHiddenFromSearch(true);
+        event.setArtists(new Artist[]{artist});
+        event.setVenue(venue);
+        return event;
+    }
+
+    private static Venue venue() {
+        Venue venue = new Venue();
+        venue.setId(41L);
+        venue.setName("O2 Academy Brixton");
+        venue.setCity("London");
+        return venue;
+    }
+
+}
@@ -0,0 +1,53 @@
+package com.tickets.api.artist.startup;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FirstResponseFilterTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final AtomicLong uptime = new AtomicLong();
+
+    private final FirstResponseFilter filter = new FirstResponseFilter(meterRegistry, uptime::get);
+
+    @Test
+    void shouldRecordOnlyTheFirstSuccessfulApiResponse() {
+        // Given
+        uptime.set(1_000);
+        serve("/actuator/health", HttpStatus.OK);
+        uptime.set(2_000);
+        serve("/artist/1", HttpStatus.NOT_FOUND);
+        assertTrue(Double.isNaN(firstResponseMillis()));
+
+        // When
+        uptime.set(3_500);
+        serve("/artist/21", HttpStatus.OK);
+        uptime.set(4_000);
+        serve("/artist/22", HttpStatus.OK);
+
+        // Then
+        assertEquals(3_500, firstResponseMillis());
+    }
+
+    private void serve(String path, HttpStatus status) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get(path));
+        filter.filter(exchange, served -> Mono.fromRunnable(() -> served.getResponse().setStatusCode(status))).block();
+    }
+
+    private double firstResponseMillis() {
+        return meterRegistry.get("application.first.response.time").timeGauge().value(TimeUnit.MILLISECONDS);
+    }
+
+}
@@ -0,0 +1,221 @@
+package com.tickets.api.artist.upstream;
+
+import com.tickets.api.artist.dto.Artist;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import okhttp3.HttpUrl;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import okio.Buffer;
+import okio.BufferedSink;
+import okio.GzipSink;
+import okio.Okio;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.netty.resources.ConnectionProvider;
+import reactor.test.StepVerifier;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FeedClientTest {
+
+    private static final String ARTISTS = "[{\"id\":21,\"name\":\"HRH Prog\",\"rank\":1}]";
+
+    private MockWebServer mockWebServer;
+
+    private HttpUrl url;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final ConnectionProvider connectionProvider = UpstreamConfiguration.connectionProvider(new UpstreamProperties().getClient());
+
+    private FeedClient feedClient;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        mockWebServer = new MockWebServer();
+        url = mockWebServer.url("/api");
+        mockWebServer.start();
+        feedClient = feedClient(new UpstreamProperties());
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        connectionProvider.dispose();
+        mockWebServer.shutdown();
+    }
+
+    @Test
+    void shouldSendValidatorsOfLoadedVersionAndKeepItOnNotModified() throws InterruptedException {
+        // Given
+        mockWebServer.enqueue(feed(ARTISTS)
+                .setHeader(HttpHeaders.ETAG, "\"v1\"")
+                .setHeader(HttpHeaders.LAST_MODIFIED, "Sat, 17 Oct 2020 00:00:00 GMT"));
+        mockWebServer.enqueue(new MockResponse().setResponseCode(304));
+
+        // When
+        FeedResponse<Artist> first = feedClient.fetchArtists(FeedVersion.NONE).block();
+        FeedResponse<Artist> second = feedClient.fetchArtists(first.getVersion()).block();
+
+        // Then
+        assertTrue(first.isModified());
+        assertEquals(21L, first.getRecords().get(0).getId());
+        assertEquals("\"v1\"", first.getVersion().getEtag());
+        assertNull(first.getVersion().getContentHash());
+        assertFalse(second.isModified());
+        assertEquals(first.getVersion(), second.getVersion());
+
+        RecordedRequest unconditional = mockWebServer.takeRequest();
+        assertNull(unconditional.getHeader(HttpHeaders.IF_NONE_MATCH));
+        RecordedRequest conditional = mockWebServer.takeRequest();
+        assertEquals("\"v1\"", conditional.getHeader(HttpHeaders.IF_NONE_MATCH));
+        assertEquals("Sat, 17 Oct 2020 00:00:00 GMT", conditional.getHeader(HttpHeaders.IF_MODIFIED_SINCE));
+    }
+
+    @Test
+    void shouldFallBackToContentHashWhenUpstreamSendsNoValidators() {
+        // Given
+        mockWebServer.enqueue(feed(ARTISTS));
+        mockWebServer.enqueue(feed(ARTISTS));
+        mockWebServer.enqueue(feed("[{\"id\":22,\"name\":\"Colosseum\",\"rank\":2}]"));
+
+        // When
+        FeedResponse<Artist> first = feedClient.fetchArtists(FeedVersion.NONE).block();
+        FeedResponse<Artist> unchanged = feedClient.fetchArtists(first.getVersion()).block();
+        FeedResponse<Artist> changed = feedClient.fetchArtists(unchanged.getVersion()).block();
+
+        // Then
+        assertTrue(first.isModified());
+        assertNotNull(first.getVersion().getContentHash());
+        assertFalse(unchanged.isModified());
+        assertTrue(changed.isModified());
+        assertEquals(22L, changed.getRecords().get(0).getId());
+    }
+
+    @Test
+    void shouldRecordFetchTimeBodySizeAndDecodeTime() {
+        // Given
+        mockWebServer.enqueue(feed(ARTISTS));
+        mockWebServer.enqueue(feed(ARTISTS));
+
+        // When
+        FeedResponse<Artist> first = feedClient.fetchArtists(FeedVersion.NONE).block();
+        feedClient.fetchArtists(first.getVersion()).block();
+
+        // Then
+        assertEquals(1, meterRegistry.get("upstream.fetch").tag("feed", "artist").tag("outcome", "modified").timer().count());
+        assertEquals(1, meterRegistry.get("upstream.fetch").tag("feed", "artist").tag("outcome", "not_modified").timer().count());
+        assertEquals(2L * ARTISTS.length(), meterRegistry.get("upstream.fetch.bytes").tag("feed", "artist").summary().totalAmount());
+        assertEquals(2, meterRegistry.get("upstream.decode").tag("feed", "artist").timer().count());
+    }
+
+    /**
+     * The connection goes back to the pool just after the response completes, so with a single
+     * connection the second fetch waits for it rather than racing its release.
+     */
+    @Test
+    void shouldAskForCompressedFeedAndReuseTheConnection() throws IOException, InterruptedException {
+        // Given
+        UpstreamProperties properties = new UpstreamProperties();
+        properties.getClient().setMaxConnections(1);
+        ConnectionProvider singleConnection = UpstreamConfiguration.connectionProvider(properties.getClient());
+        feedClient = new FeedClient(UpstreamConfiguration.webClient(url.url().toString(), singleConnection, properties.getClient()),
+                "/artist.json", "/events.json", "/venues.json", properties, meterRegistry);
+        mockWebServer.enqueue(feed(ARTISTS));
+        mockWebServer.enqueue(new MockResponse().setResponseCode(200)
+                .setHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .setHeader(HttpHeaders.CONTENT_ENCODING, "gzip")
+                .setBody(gzip(ARTISTS)));
+
+        // When
+        FeedResponse<Artist> plain;
+        FeedResponse<Artist> compressed;
+        try {
+            plain = feedClient.fetchArtists(FeedVersion.NONE).block();
+            compressed = feedClient.fetchArtists(FeedVersion.NONE).block();
+        } finally {
+            singleConnection.dispose();
+        }
+
+        // Then
+        assertEquals(plain.getRecords(), compressed.getRecords());
+        RecordedRequest first = mockWebServer.takeRequest();
+        RecordedRequest second = mockWebServer.takeRequest();
+        assertTrue(first.getHeader(HttpHeaders.ACCEPT_ENCODING).contains("gzip"));
+        assertEquals(0, first.getSequenceNumber());
+        assertEquals(1, second.getSequenceNumber());
+    }
+
+    @Test
+    void shouldTimeOutSlowFeed() {
+        // Given
+        UpstreamProperties properties = new UpstreamProperties();
+        properties.getArtist().setTimeout(Duration.ofMillis(200));
+        feedClient = feedClient(properties);
+        mockWebServer.enqueue(feed(ARTISTS).setHeadersDelay(1, TimeUnit.SECONDS));
+
+        // When
+        Mono<FeedResponse<Artist>> artists = feedClient.fetchArtists(FeedVersion.NONE);
+
+        // Then
+        StepVerifier.create(artists)
+                .expectError(TimeoutException.class)
+                .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    void shouldAnswerFromHedgedRequestWhenFirstIsSlow() {
+        // Given
+        UpstreamProperties properties = new UpstreamProperties();
+        properties.getHedge().setEnabled(true);
+        properties.getHedge().setMinDelay(Duration.ofMillis(100));
+        feedClient = feedClient(properties);
+        mockWebServer.enqueue(feed(ARTISTS).setHeadersDelay(1, TimeUnit.SECONDS));
+        mockWebServer.enqueue(feed("[{\"id\":22,\"name\":\"Colosseum\",\"rank\":2}]"));
+
+        // When
+        Mono<FeedResponse<Artist>> artists = feedClient.fetchArtists(FeedVersion.NONE);
+
+        // Then
+        StepVerifier.create(artists)
+                .expectNextMatches(response -> response.getRecords().get(0).getId().equals(22L))
+                .expectComplete()
+                .verify(Duration.ofMillis(800));
+        assertEquals(2, mockWebServer.getRequestCount());
+    }
+
+    private FeedClient feedClient(UpstreamProperties properties) {
+        WebClient webClient = UpstreamConfiguration.webClient(url.url().toString(), connectionProvider, properties.getClient());
+        return new FeedClient(webClient, "/artist.json", "/events.json", "/venues.json", properties, meterRegistry);
+    }
+
+    private static Buffer gzip(String body) throws IOException {
+        Buffer gzipped = new Buffer();
+        try (BufferedSink sink = Okio.buffer(new GzipSink(gzipped))) {
+            sink.writeUtf8(body);
+        }
+        return gzipped;
+    }
+
+    private static MockResponse feed(String body) {
+        return new MockResponse().setResponseCode(200)
+                .setHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .setBody(body);
+    }
+
+}
@@ -0,0 +1,104 @@
+package com.tickets.api.artist.upstream;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.tickets.api.artist.dto.Artist;
+import com.tickets.api.artist.dto.Events;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class JsonFeedDecoderTest {
+
+    private static final String EVENTS = "[{\"title\":\"Fusion Prog\",\"id\":\"1\",\"dateStatus\":\"singleDate\",\"timeZone\":\"Europe/London\"," +
+            "\"startDate\":\"2020-10-17T00:00:00\",\"artists\":[{\"id\":\"21\"},{\"id\":\"23\"}],\"venue\":{\"id\":\"41\"},\"hiddenFromSearch\":false}," +
+            "{\"title\":\"Jazz Live\",\"id\":3,\"dateStatus\":\"singleDate\",\"timeZone\":null,\"artists\":[{\"id\":24,\"extra\":[1,{\"deep\":[true]}]}]," +
+            "\"tags\":{\"nested\":{\"title\":\"ignored\"}},\"hiddenFromSearch\":true}," +
+            "{\"title\":\"A festival Live\",\"id\":\"7\",\"dateStatus\":\"singleDate\",\"artists\":[]}]";
+
+    private static final String ARTISTS = "[{\"name\":\"HRH Prog\",\"id\":\"21\",\"imgSrc\":\"//some-base-url/hrh-prog.jpg\"," +
+            "\"url\":\"/hrh-prog-tickets/artist/21\",\"rank\":1,\"genres\":[\"prog\"]}," +
+            "{\"name\":\"Colosseum \\u00e9\",\"id\":22,\"imgSrc\":null,\"url\":\"/colosseum-tickets/artist/22\",\"rank\":\"2\"}]";
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+
+    @Test
+    void shouldDecodeEventsLikeDatabindWhateverTheBufferBoundaries() throws Exception {
+        // Given
+        List<Events> expected = Arrays.asList(objectMapper.readValue(EVENTS, Events[].class));
+        JsonFeedDecoder<Events> decoder = new JsonFeedDecoder<>(EventsRecordReader::new);
+
+        for (int chunkSize : new int[]{1, 3, 17, EVENTS.length()}) {
+            // When
+            List<Events> decoded = decoder.decode(chunks(EVENTS, chunkSize)).collectList().block();
+
+            // Then
+            assertEquals(expected, decoded, "chunk size " + chunkSize);
+        }
+    }
+
+    @Test
+    void shouldDecodeArtistsLikeDatabind() throws Exception {
+        // Given
+        List<Artist> expected = Arrays.asList(objectMapper.readValue(ARTISTS, Artist[].class));
+        JsonFeedDecoder<Artist> decoder = new JsonFeedDecoder<>(ArtistRecordReader::new);
+
+        // When
+        List<Artist> decoded = decoder.decode(chunks(ARTISTS, 5)).collectList().block();
+
+        // Then
+        assertEquals(expected, decoded);
+    }
+
+    @Test
+    void shouldDecodeSingleTopLevelRecord() {
+        // Given
+        JsonFeedDecoder<Artist> decoder = new JsonFeedDecoder<>(ArtistRecordReader::new);
+
+        // When
+        Flux<Artist> decoded = decoder.decode(chunks("{\"id\":21,\"name\":\"HRH Prog\",\"rank\":1}", 4));
+
+        // Then
+        StepVerifier.create(decoded)
+                .expectNextMatches(artist -> artist.getId().equals(21L) && artist.getName().equals("HRH Prog"))
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldFailOnTruncatedFeed() {
+        // Given
+        JsonFeedDecoder<Artist> decoder = new JsonFeedDecoder<>(ArtistRecordReader::new);
+
+        // When
+        Flux<Artist> decoded = decoder.decode(chunks(ARTISTS.substring(0, ARTISTS.length() - 10), 64));
+
+        // Then
+        StepVerifier.create(decoded)
+                .expectNextCount(1)
+                .expectError(DecodingException.class)
+                .verify();
+    }
+
+    private static Flux<DataBuffer> chunks(String json, int chunkSize) {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        List<DataBuffer> buffers = new ArrayList<>();
+        for (int offset = 0; offset < bytes.length; offset += chunkSize) {
+            buffers.add(DefaultDataBufferFactory.sharedInstance.wrap(Arrays.copyOfRange(bytes, offset, Math.min(bytes.length, offset + chunkSize))));
+        }
+        return Flux.fromIterable(buffers);
+    }
+
+}
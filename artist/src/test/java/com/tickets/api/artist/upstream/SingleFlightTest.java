@@ -0,0 +1,91 @@
+package com.tickets.api.artist.upstream;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SingleFlightTest {
+
+    private final SingleFlight<String> singleFlight = new SingleFlight<>();
+
+    @Test
+    void shouldShareInFlightCallAmongConcurrentCallers() {
+        // Given
+        AtomicInteger calls = new AtomicInteger();
+        Sinks.One<String> upstream = Sinks.one();
+        List<String> results = new CopyOnWriteArrayList<>();
+
+        // When
+        for (int i = 0; i < 3; i++) {
+            singleFlight.execute("/artists.json", () -> {
+                calls.incrementAndGet();
+                return upstream.asMono();
+            }).subscribe(results::add);
+        }
+        upstream.tryEmitValue("artists");
+
+        // Then
+        assertEquals(List.of("artists", "artists", "artists"), results);
+        assertEquals(1, calls.get());
+        assertEquals(1, singleFlight.flights());
+        assertEquals(2, singleFlight.foldedCallers());
+        assertEquals(2, singleFlight.maxFoldedCallers());
+    }
+
+    @Test
+    void shouldStartNewCallOnceThePreviousOneCompleted() {
+        // Given
+        AtomicInteger calls = new AtomicInteger();
+
+        // When
+        singleFlight.execute("/events.json", () -> Mono.just(calls.incrementAndGet())).block();
+        Integer second = singleFlight.execute("/events.json", () -> Mono.just(calls.incrementAndGet())).block();
+
+        // Then
+        assertEquals(2, second);
+        assertEquals(2, singleFlight.flights());
+        assertEquals(0, singleFlight.foldedCallers());
+    }
+
+    @Test
+    void shouldNotRememberFailedCall() {
+        // When
+        StepVerifier.create(singleFlight.execute("/events.json", () -> Mono.error(new IllegalStateException("boom"))))
+                .expectError(IllegalStateException.class)
+                .verify();
+
+        // Then
+        StepVerifier.create(singleFlight.execute("/events.json", () -> Mono.just("recovered")))
+                .expectNext("recovered")
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldNotShareCallsForDifferentKeys() {
+        // Given
+        AtomicInteger calls = new AtomicInteger();
+        Sinks.One<String> artists = Sinks.one();
+
+        // When
+        singleFlight.execute("/artists.json", () -> {
+            calls.incrementAndGet();
+            return artists.asMono();
+        }).subscribe();
+        String events = singleFlight.execute("/events.json", () -> {
+            calls.incrementAndGet();
+            return Mono.just("events");
+        }).block();
+
+        // Then
+        assertEquals("events", events);
+        assertEquals(2, calls.get());
+    }
+
+}
@@ -0,0 +1,148 @@
+package com.tickets.api.artist.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.tickets.api.artist.ArtistFields;
+import com.tickets.api.artist.ArtistResponseCache;
+import com.tickets.api.artist.ArtistService;
+import com.tickets.api.artist.EncodedArtist;
+import com.tickets.api.artist.ResponseFormat;
+import com.tickets.api.artist.dto.Artist;
+import com.tickets.api.artist.dto.Events;
+import com.tickets.api.artist.snapshot.SnapshotProperties;
+import com.tickets.api.artist.snapshot.SnapshotService;
+import com.tickets.api.artist.upstream.FeedClient;
+import com.tickets.api.artist.upstream.UpstreamProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lookups against a snapshot loaded from the synthetic feeds through the real client. Ids are
+ * drawn from a fixed random sequence over the whole artist feed, so the hash lookups are not all
+ * served from the same cache lines.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@State(Scope.Benchmark)
+public class ArtistLookupBenchmark {
+
+    private static final int IDS = 1 << 16;
+
+    private static final String[] BROAD_QUERIES = {"arti", "artist", "artist 1", "artist 2"};
+
+    @Param({"1000", "100000", "1000000"})
+    public int records;
+
+    private ArtistService artistService;
+
+    private long[] ids;
+
+    private String[] queries;
+
+    private final ArtistFields summary = ArtistFields.parse("id,name,rank");
+
+    private int next;
+
+    @Setup(Level.Trial)
+    public void loadSnapshot() {
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        try (FixtureServer upstream = FixtureServer.start(Fixtures.feeds(records))) {
+            UpstreamProperties upstreamProperties = new UpstreamProperties();
+            upstreamProperties.getArtist().setTimeout(Duration.ofMinutes(5));
+            upstreamProperties.getEvents().setTimeout(Duration.ofMinutes(5));
+            upstreamProperties.getVenues().setTimeout(Duration.ofMinutes(5));
+            FeedClient feedClient = new FeedClient(WebClient.create(upstream.baseUrl()),
+                    "/" + Fixtures.ARTISTS, "/" + Fixtures.EVENTS, "/" + Fixtures.VENUES, upstreamProperties, meterRegistry);
+            SnapshotService snapshotService = new SnapshotService(feedClient, new SnapshotProperties(), meterRegistry);
+            snapshotService.refresh().block();
+            ObjectMapper objectMapper = new ObjectMapper()
+                    .registerModule(new JavaTimeModule())
+                    .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+            artistService = new ArtistService(snapshotService, new ArtistResponseCache(objectMapper, DataSize.ofMegabytes(64), meterRegistry),
+                    meterRegistry);
+        }
+        SplittableRandom random = new SplittableRandom(records);
+        ids = new long[IDS];
+        for (int i = 0; i < IDS; i++) {
+            ids[i] = 1 + random.nextInt(records);
+        }
+        queries = new String[IDS];
+        for (int i = 0; i < IDS; i++) {
+            queries[i] = "artist " + ids[i] / 10;
+        }
+    }
+
+    @Benchmark
+    public Artist findById() {
+        return artistService.findById(nextId()).block();
+    }
+
+    @Benchmark
+    public List<Events> findEventsByArtistId() {
+        return artistService.findEventsByArtistId(nextId()).collectList().block();
+    }
+
+    @Benchmark
+    public EncodedArtist findEncodedById() {
+        return artistService.findEncodedById(nextId()).block();
+    }
+
+    @Benchmark
+    public EncodedArtist findEncodedCborById() {
+        return artistService.findEncodedById(nextId(), ResponseFormat.CBOR, null).block();
+    }
+
+    /**
+     * A projection is encoded per request, but joins no events and writes three fields.
+     */
+    @Benchmark
+    public EncodedArtist findEncodedSummaryById() {
+        return artistService.findEncodedById(nextId(), ResponseFormat.CBOR, summary).block();
+    }
+
+    /**
+     * Type-ahead queries like "artist 1234", each a prefix of about ten names, so every search
+     * ranks the matching name suffixes rather than read a list ranked at build time.
+     */
+    @Benchmark
+    public List<Artist> searchByName() {
+        return artistService.searchByName(queries[next++ & (IDS - 1)], 10).collectList().block();
+    }
+
+    /**
+     * Queries too long for the lists ranked at build time that still match most names: "arti" and
+     * "artist" match every artist, "artist 1" and "artist 2" about one in nine.
+     */
+    @Benchmark
+    public List<Artist> searchByBroadPrefix() {
+        return artistService.searchByName(BROAD_QUERIES[next++ & (BROAD_QUERIES.length - 1)], 10).collectList().block();
+    }
+
+    private long nextId() {
+        return ids[next++ & (IDS - 1)];
+    }
+
+}
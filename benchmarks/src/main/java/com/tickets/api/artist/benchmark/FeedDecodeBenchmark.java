@@ -0,0 +1,96 @@
+package com.tickets.api.artist.benchmark;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.tickets.api.artist.dto.Artist;
+import com.tickets.api.artist.dto.Events;
+import com.tickets.api.artist.upstream.JsonFeedDecoder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decoding whole feeds: the token-level {@link JsonFeedDecoder} the client uses, fed in
+ * network-sized chunks, next to binding the same bytes through databind.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@State(Scope.Benchmark)
+public class FeedDecodeBenchmark {
+
+    private static final int CHUNK_SIZE = 16 * 1024;
+
+    private static final JsonFeedDecoder<Artist> ARTISTS = JsonFeedDecoder.artists();
+
+    private static final JsonFeedDecoder<Events> EVENTS = JsonFeedDecoder.events();
+
+    @Param({"1000", "100000", "1000000"})
+    public int records;
+
+    private final DefaultDataBufferFactory bufferFactory = DefaultDataBufferFactory.sharedInstance;
+
+    private ObjectMapper objectMapper;
+
+    private byte[] artists;
+
+    private byte[] events;
+
+    @Setup(Level.Trial)
+    public void readFixtures() {
+        artists = Fixtures.read(records, Fixtures.ARTISTS);
+        events = Fixtures.read(records, Fixtures.EVENTS);
+        objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+    }
+
+    @Benchmark
+    public List<Artist> decodeArtists() {
+        return ARTISTS.decode(chunks(artists)).collectList().block();
+    }
+
+    @Benchmark
+    public List<Events> decodeEvents() {
+        return EVENTS.decode(chunks(events)).collectList().block();
+    }
+
+    @Benchmark
+    public Artist[] bindArtists() throws IOException {
+        return objectMapper.readValue(artists, Artist[].class);
+    }
+
+    @Benchmark
+    public Events[] bindEvents() throws IOException {
+        return objectMapper.readValue(events, Events[].class);
+    }
+
+    private Flux<DataBuffer> chunks(byte[] feed) {
+        return Flux.range(0, (feed.length + CHUNK_SIZE - 1) / CHUNK_SIZE)
+                .map(chunk -> {
+                    int offset = chunk * CHUNK_SIZE;
+                    return bufferFactory.wrap(ByteBuffer.wrap(feed, offset, Math.min(CHUNK_SIZE, feed.length - offset)));
+                });
+    }
+
+}
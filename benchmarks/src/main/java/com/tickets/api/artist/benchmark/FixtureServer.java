@@ -0,0 +1,113 @@
+package com.tickets.api.artist.benchmark;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Serves a fixture directory over HTTP on a loopback port, standing in for the upstream feed
+ * bucket so that benchmarks load their snapshot through the real client without any network.
+ * <p>
+ * For load tests the stand-in can hold every response for a fixed latency before answering and
+ * fail a share of requests with 500, like a slow or flaky bucket would.
+ */
+public final class FixtureServer implements AutoCloseable {
+
+    private final HttpServer server;
+
+    private final ExecutorService executor;
+
+    private final Path directory;
+
+    private final Duration latency;
+
+    private final double errorRate;
+
+    private final AtomicLong requests = new AtomicLong();
+
+    private final AtomicLong failures = new AtomicLong();
+
+    private FixtureServer(Path directory, Duration latency, double errorRate) throws IOException {
+        this.directory = directory;
+        this.latency = latency;
+        this.errorRate = errorRate;
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        this.executor = Executors.newCachedThreadPool();
+        server.createContext("/", this::serve);
+        server.setExecutor(executor);
+    }
+
+    public static FixtureServer start(Path directory) {
+        return start(directory, Duration.ZERO, 0);
+    }
+
+    public static FixtureServer start(Path directory, Duration latency, double errorRate) {
+        try {
+            FixtureServer fixtureServer = new FixtureServer(directory, latency, errorRate);
+            fixtureServer.server.start();
+            return fixtureServer;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public String baseUrl() {
+        return "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort();
+    }
+
+    public long requests() {
+        return requests.get();
+    }
+
+    /**
+     * Number of requests failed on purpose.
+     */
+    public long failures() {
+        return failures.get();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void serve(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            requests.incrementAndGet();
+            if (!latency.isZero()) {
+                Thread.sleep(latency.toMillis());
+            }
+            if (errorRate > 0 && ThreadLocalRandom.current().nextDouble() < errorRate) {
+                failures.incrementAndGet();
+                exchange.sendResponseHeaders(500, -1);
+                return;
+            }
+            Path feed = directory.resolve(exchange.getRequestURI().getPath().substring(1)).normalize();
+            if (!feed.startsWith(directory) || !Files.isRegularFile(feed)) {
+                exchange.sendResponseHeaders(404, -1);
+                return;
+            }
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, Files.size(feed));
+            try (OutputStream body = exchange.getResponseBody()) {
+                Files.copy(feed, body);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
@@ -0,0 +1,132 @@
+package com.tickets.api.artist.benchmark;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.SplittableRandom;
+
+/**
+ * Synthetic artist, events and venue feeds shaped like the upstream ones. Feeds are generated from
+ * a fixed seed, so a given record count always produces the same bytes, and are kept under
+ * {@code fixtures.dir} (default {@code target/fixtures}) so that later runs reuse them.
+ * <p>
+ * Every event lists one to four artists drawn uniformly from the artist feed and one of
+ * {@code records / 10} venues.
+ */
+public final class Fixtures {
+
+    public static final String ARTISTS = "artists.json";
+
+    public static final String EVENTS = "events.json";
+
+    public static final String VENUES = "venues.json";
+
+    private static final long SEED = 20201017L;
+
+    private static final LocalDateTime FIRST_EVENT = LocalDateTime.of(2020, 10, 17, 19, 30);
+
+    private Fixtures() {
+    }
+
+    /**
+     * Directory holding the feeds for the given record count, generating them on first use.
+     */
+    public static synchronized Path feeds(int records) {
+        Path directory = Path.of(System.getProperty("fixtures.dir", "target/fixtures"), Integer.toString(records));
+        try {
+            if (!Files.exists(directory.resolve(VENUES))) {
+                Files.createDirectories(directory);
+                write(directory.resolve(ARTISTS), out -> artists(out, records));
+                write(directory.resolve(EVENTS), out -> events(out, records));
+                write(directory.resolve(VENUES), out -> venues(out, records));
+            }
+            return directory;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static byte[] read(int records, String feed) {
+        try {
+            return Files.readAllBytes(feeds(records).resolve(feed));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static int venueCount(int records) {
+        return Math.max(1, records / 10);
+    }
+
+    private static void artists(Writer out, int records) throws IOException {
+        out.write('[');
+        for (int id = 1; id <= records; id++) {
+            if (id > 1) {
+                out.write(',');
+            }
+            out.write("{\"name\":\"Artist " + id + "\",\"id\":\"" + id + "\",\"imgSrc\":\"//some-base-url/artist-" + id + ".jpg\","
+                    + "\"url\":\"/artist-" + id + "-tickets/artist/" + id + "\",\"rank\":" + id + "}");
+        }
+        out.write(']');
+    }
+
+    private static void events(Writer out, int records) throws IOException {
+        SplittableRandom random = new SplittableRandom(SEED);
+        int venues = venueCount(records);
+        out.write('[');
+        for (int id = 1; id <= records; id++) {
+            if (id > 1) {
+                out.write(',');
+            }
+            out.write("{\"title\":\"Event " + id + "\",\"id\":\"" + id + "\",\"dateStatus\":\"singleDate\",\"timeZone\":\"Europe/London\","
+                    + "\"startDate\":\"" + FIRST_EVENT.plusHours(id) + ":00\",\"artists\":[");
+            int artists = 1 + random.nextInt(4);
+            for (int i = 0; i < artists; i++) {
+                if (i > 0) {
+                    out.write(',');
+                }
+                out.write("{\"id\":\"" + (1 + random.nextInt(records)) + "\"}");
+            }
+            out.write("],\"venue\":{\"id\":\"" + (1 + random.nextInt(venues)) + "\"},\"hiddenFromSearch\":" + (id % 10 == 0) + "}");
+        }
+        out.write(']');
+    }
+
+    private static void venues(Writer out, int records) throws IOException {
+        out.write('[');
+        for (int id = 1; id <= venueCount(records); id++) {
+            if (id > 1) {
+                out.write(',');
+            }
+            out.write("{\"name\":\"Venue " + id + "\",\"id\":\"" + id + "\",\"url\":\"/venue-" + id + "-tickets/venue/" + id + "\","
+                    + "\"city\":\"City " + (id % 50) + "\"}");
+        }
+        out.write(']');
+    }
+
+    /**
+     * Writes next to the target and moves the result over it, so an interrupted run never leaves a
+     * truncated feed behind for the next one to reuse.
+     */
+    private static void write(Path path, FeedWriter feed) throws IOException {
+        Path partial = path.resolveSibling(path.getFileName() + ".partial");
+        try (BufferedWriter out = Files.newBufferedWriter(partial, StandardCharsets.UTF_8)) {
+            feed.write(out);
+        }
+        Files.move(partial, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    @FunctionalInterface
+    private interface FeedWriter {
+
+        void write(Writer out) throws IOException;
+
+    }
+
+}
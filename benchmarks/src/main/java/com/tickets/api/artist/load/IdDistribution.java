@@ -0,0 +1,51 @@
+package com.tickets.api.artist.load;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Artist ids to request: Zipf-distributed over the artist feed, so a few artists take most of the
+ * traffic as they do in production, plus a share of ids past the end of the feed that answer 404.
+ * Popularity is assigned to ids through a fixed shuffle rather than by id order.
+ */
+final class IdDistribution {
+
+    private final double[] cumulative;
+
+    private final long[] idByRank;
+
+    private final double missing;
+
+    IdDistribution(int records, double skew, double missing, long seed) {
+        this.missing = missing;
+        this.cumulative = new double[records];
+        double total = 0;
+        for (int rank = 0; rank < records; rank++) {
+            total += 1 / Math.pow(rank + 1, skew);
+            cumulative[rank] = total;
+        }
+        for (int rank = 0; rank < records; rank++) {
+            cumulative[rank] /= total;
+        }
+        idByRank = new long[records];
+        for (int rank = 0; rank < records; rank++) {
+            idByRank[rank] = rank + 1;
+        }
+        SplittableRandom shuffle = new SplittableRandom(seed);
+        for (int i = records - 1; i > 0; i--) {
+            int j = shuffle.nextInt(i + 1);
+            long id = idByRank[i];
+            idByRank[i] = idByRank[j];
+            idByRank[j] = id;
+        }
+    }
+
+    long next(SplittableRandom random) {
+        if (random.nextDouble() < missing) {
+            return idByRank.length + 1 + random.nextInt(idByRank.length);
+        }
+        int rank = Arrays.binarySearch(cumulative, random.nextDouble());
+        return idByRank[Math.min(rank < 0 ? -rank - 1 : rank, idByRank.length - 1)];
+    }
+
+}
@@ -0,0 +1,75 @@
+package com.tickets.api.artist.load;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Response latencies and outcomes of the measured part of a run. Latencies are taken from the time
+ * a request was due to start, not the time it was sent, so that a stalled service is charged for
+ * the requests queued behind it.
+ */
+final class LatencyRecorder {
+
+    private long[] latencies = new long[1 << 16];
+
+    private int count;
+
+    private final Map<Integer, Long> statuses = new TreeMap<>();
+
+    private long failures;
+
+    private long dropped;
+
+    synchronized void record(long latencyNanos, int status) {
+        if (count == latencies.length) {
+            latencies = Arrays.copyOf(latencies, count << 1);
+        }
+        latencies[count++] = latencyNanos;
+        statuses.merge(status, 1L, Long::sum);
+    }
+
+    /**
+     * A request that got no HTTP response at all: refused or reset connection, timeout.
+     */
+    synchronized void fail(long latencyNanos) {
+        if (count == latencies.length) {
+            latencies = Arrays.copyOf(latencies, count << 1);
+        }
+        latencies[count++] = latencyNanos;
+        failures++;
+    }
+
+    /**
+     * A request that was due but not sent because too many were already waiting for a response.
+     */
+    synchronized void drop() {
+        dropped++;
+    }
+
+    synchronized String report(long elapsedNanos) {
+        long[] sorted = Arrays.copyOf(latencies, count);
+        Arrays.sort(sorted);
+        StringBuilder report = new StringBuilder();
+        report.append(String.format("requests   %d in %.1f s, %.1f/s%n", count, elapsedNanos / 1e9, count / (elapsedNanos / 1e9)));
+        report.append(String.format("latency    p50 %s  p95 %s  p99 %s  p99.9 %s  max %s%n",
+                millis(percentile(sorted, 0.50)), millis(percentile(sorted, 0.95)), millis(percentile(sorted, 0.99)),
+                millis(percentile(sorted, 0.999)), millis(sorted.length == 0 ? 0 : sorted[sorted.length - 1])));
+        statuses.forEach((status, requests) -> report.append(String.format("status     %d: %d%n", status, requests)));
+        report.append(String.format("errors     %d without response, %d dropped%n", failures, dropped));
+        return report.toString();
+    }
+
+    private static long percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        return sorted[Math.min(sorted.length - 1, (int) Math.ceil(percentile * sorted.length) - 1)];
+    }
+
+    private static String millis(long nanos) {
+        return String.format("%.2f ms", nanos / (double) TimeUnit.MILLISECONDS.toNanos(1));
+    }
+
+}
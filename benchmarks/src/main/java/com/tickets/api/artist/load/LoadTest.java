@@ -0,0 +1,168 @@
+package com.tickets.api.artist.load;
+
+import com.tickets.api.artist.ArtistApplication;
+import com.tickets.api.artist.benchmark.FixtureServer;
+import com.tickets.api.artist.benchmark.Fixtures;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.SplittableRandom;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Drives {@code GET /artist/{id}} at a fixed request rate and reports latency percentiles,
+ * throughput and outcomes. The feeds come from a local stand-in serving the synthetic fixtures,
+ * optionally slowed down or failing a share of requests.
+ * <p>
+ * Requests are started on schedule whether or not earlier ones have completed (an open model), and
+ * every latency is measured from the time its request was due. Without {@code --target} the service
+ * runs in this JVM, which is enough to catch regressions; for sizing, start the service on its own
+ * host and point {@code --target} at it.
+ * <pre>
+ * java -cp target/benchmarks.jar com.tickets.api.artist.load.LoadTest --records=100000 --rate=2000 --duration=PT60S
+ * </pre>
+ */
+public final class LoadTest {
+
+    private static final long SEED = 20201017L;
+
+    private static final Duration READY_TIMEOUT = Duration.ofMinutes(5);
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(10);
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        System.out.println("load test " + options);
+        IdDistribution ids = new IdDistribution(options.records, options.skew, options.missing, SEED);
+        try (FixtureServer upstream = FixtureServer.start(Fixtures.feeds(options.records), options.upstreamLatency, options.upstreamErrorRate);
+             Service service = options.target == null ? Service.inProcess(upstream) : Service.external(options.target)) {
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(REQUEST_TIMEOUT)
+                    .build();
+            awaitReady(client, service.baseUrl);
+
+            drive(client, service.baseUrl, ids, options, options.warmup, new LatencyRecorder());
+            LatencyRecorder recorder = new LatencyRecorder();
+            long started = System.nanoTime();
+            drive(client, service.baseUrl, ids, options, options.duration, recorder);
+            long elapsed = System.nanoTime() - started;
+
+            System.out.print(recorder.report(elapsed));
+            System.out.printf("upstream   %d requests, %d failed on purpose%n", upstream.requests(), upstream.failures());
+        }
+    }
+
+    /**
+     * Waits until the service has a snapshot to answer from; artist 1 is always in the fixtures.
+     */
+    private static void awaitReady(HttpClient client, String baseUrl) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/artist/1")).timeout(READY_TIMEOUT).GET().build();
+        long deadline = System.nanoTime() + READY_TIMEOUT.toNanos();
+        while (true) {
+            try {
+                int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                if (status == 200) {
+                    return;
+                }
+                System.out.println("service answered " + status + ", waiting for the snapshot to load");
+            } catch (IOException e) {
+                System.out.println("service not reachable yet: " + e);
+            }
+            if (System.nanoTime() > deadline) {
+                throw new IllegalStateException("service not ready after " + READY_TIMEOUT);
+            }
+            Thread.sleep(1000);
+        }
+    }
+
+    private static void drive(HttpClient client, String baseUrl, IdDistribution ids, LoadTestOptions options, Duration length,
+                              LatencyRecorder recorder) throws InterruptedException {
+        SplittableRandom random = new SplittableRandom(SEED);
+        Semaphore inFlight = new Semaphore(options.maxInFlight);
+        long start = System.nanoTime();
+        long end = start + length.toNanos();
+        for (long sent = 0; ; sent++) {
+            long due = start + sent * TimeUnit.SECONDS.toNanos(1) / options.rate;
+            if (due >= end) {
+                break;
+            }
+            long wait = due - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            if (!inFlight.tryAcquire()) {
+                recorder.drop();
+                continue;
+            }
+            HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/artist/" + ids.next(random)))
+                    .timeout(REQUEST_TIMEOUT)
+                    .GET()
+                    .build();
+            client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, error) -> {
+                        long latency = System.nanoTime() - due;
+                        if (error != null) {
+                            recorder.fail(latency);
+                        } else {
+                            recorder.record(latency, response.statusCode());
+                        }
+                        inFlight.release();
+                    });
+        }
+        if (!inFlight.tryAcquire(options.maxInFlight, REQUEST_TIMEOUT.toSeconds() * 2, TimeUnit.SECONDS)) {
+            System.out.println("requests still outstanding after the run");
+        } else {
+            inFlight.release(options.maxInFlight);
+        }
+    }
+
+    private static final class Service implements AutoCloseable {
+
+        private final String baseUrl;
+
+        private final ConfigurableApplicationContext context;
+
+        private Service(String baseUrl, ConfigurableApplicationContext context) {
+            this.baseUrl = baseUrl;
+            this.context = context;
+        }
+
+        static Service external(String baseUrl) {
+            return new Service(baseUrl, null);
+        }
+
+        static Service inProcess(FixtureServer upstream) {
+            ConfigurableApplicationContext context = new SpringApplicationBuilder(ArtistApplication.class)
+                    .run("--server.port=0",
+                            "--url.base=" + upstream.baseUrl(),
+                            "--url.artist=/" + Fixtures.ARTISTS,
+                            "--url.events=/" + Fixtures.EVENTS,
+                            "--url.venues=/" + Fixtures.VENUES,
+                            "--snapshot.store.enabled=false");
+            String port = context.getEnvironment().getProperty("local.server.port");
+            String basePath = context.getEnvironment().getProperty("spring.webflux.base-path", "");
+            return new Service("http://localhost:" + port + basePath, context);
+        }
+
+        @Override
+        public void close() {
+            if (context != null) {
+                context.close();
+            }
+        }
+
+    }
+
+}
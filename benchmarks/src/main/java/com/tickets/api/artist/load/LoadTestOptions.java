@@ -0,0 +1,83 @@
+package com.tickets.api.artist.load;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Settings of a load test run, read from {@code --name=value} arguments.
+ */
+final class LoadTestOptions {
+
+    /**
+     * Base URL of an already running service, e.g. {@code http://localhost:8080/api}. When absent
+     * the service is started in this JVM against the upstream stand-in.
+     */
+    final String target;
+
+    final int records;
+
+    /**
+     * Requests started per second, whether or not earlier ones have completed.
+     */
+    final int rate;
+
+    final Duration warmup;
+
+    final Duration duration;
+
+    /**
+     * Zipf exponent of the artist id popularity; larger means fewer, hotter keys.
+     */
+    final double skew;
+
+    /**
+     * Share of requests for ids that no artist has.
+     */
+    final double missing;
+
+    final Duration upstreamLatency;
+
+    final double upstreamErrorRate;
+
+    final int maxInFlight;
+
+    private LoadTestOptions(Map<String, String> values) {
+        target = values.get("target");
+        records = Integer.parseInt(values.getOrDefault("records", "100000"));
+        rate = Integer.parseInt(values.getOrDefault("rate", "1000"));
+        warmup = Duration.parse(values.getOrDefault("warmup", "PT10S"));
+        duration = Duration.parse(values.getOrDefault("duration", "PT30S"));
+        skew = Double.parseDouble(values.getOrDefault("skew", "1.0"));
+        missing = Double.parseDouble(values.getOrDefault("missing", "0.05"));
+        upstreamLatency = Duration.parse(values.getOrDefault("upstream-latency", "PT0S"));
+        upstreamErrorRate = Double.parseDouble(values.getOrDefault("upstream-error-rate", "0"));
+        maxInFlight = Integer.parseInt(values.getOrDefault("max-in-flight", "10000"));
+        if (rate <= 0 || records <= 0 || maxInFlight <= 0) {
+            throw new IllegalArgumentException("rate, records and max-in-flight must be positive");
+        }
+        if (missing < 0 || missing > 1 || upstreamErrorRate < 0 || upstreamErrorRate > 1) {
+            throw new IllegalArgumentException("missing and upstream-error-rate must be between 0 and 1");
+        }
+    }
+
+    static LoadTestOptions parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (!arg.startsWith("--") || separator < 0) {
+                throw new IllegalArgumentException("expected --name=value but got " + arg);
+            }
+            values.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+        return new LoadTestOptions(values);
+    }
+
+    @Override
+    public String toString() {
+        return "target=" + (target == null ? "in-process" : target) + " records=" + records + " rate=" + rate + "/s warmup=" + warmup
+                + " duration=" + duration + " skew=" + skew + " missing=" + missing + " upstream-latency=" + upstreamLatency
+                + " upstream-error-rate=" + upstreamErrorRate + " max-in-flight=" + maxInFlight;
+    }
+
+}